@@ -0,0 +1,364 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  Benchmarks times the hot paths of the game: deploying mines,
+ *  revealing cells, drawing the board, replays, and the leaderboard.
+ *
+ *  You can run all the benchmarks using:
+ *    java Benchmarks
+ *  or just the ones whose names contain some text, e.g.:
+ *    java Benchmarks reveal
+ *  Add -gc to also report garbage collections during each benchmark.
+ *  The same benchmarks are also in jmh/, for JMH; see pom.xml.
+ *----------------------------------------------------------------*/
+
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * <i>Benchmarks</i> measures how long the game's hot paths take and how much
+ * memory they allocate, so changes to them can be checked for speed. Each
+ * benchmark runs a few warmup rounds so the JIT compiler can do its work, then
+ * several measured rounds, and prints the average time per operation, the
+ * spread between rounds, and the bytes allocated per operation. Setup work,
+ * like making a fresh board before revealing cells on it, is not timed.
+ *
+ * Everything here runs without a display, except drawing, which is measured
+ * by calling Cell.repaint() with the canvas of a real game window, and is
+ * skipped if there is no display. The leaderboard is measured with TopScores,
+ * which has no window, saving to a temporary directory.
+ */
+public class Benchmarks {
+
+    // Rounds of each benchmark that are run but not reported.
+    private static final int WARMUP_ROUNDS = 5;
+
+    // Rounds of each benchmark that are measured.
+    private static final int MEASURED_ROUNDS = 10;
+
+    // Each round runs for at least this long, in nanoseconds.
+    private static final long MIN_ROUND_NANOS = 100000000L;
+
+    // A benchmark: setup() gets things ready and isn't timed, then run() does
+    // the work and returns how many operations it did.
+    private interface Bench {
+        void setup();
+        int run();
+    }
+
+    // Only benchmarks whose name contains this text are run.
+    private static String filter = "";
+
+    // Whether to report garbage collections.
+    private static boolean reportGC = false;
+
+    // Something for benchmarks to write results to, so the JIT can't decide
+    // the work is unused and skip it.
+    private static long sink;
+
+    /**
+     * A main() function, which runs the benchmarks.
+     */
+    public static void main(String args[]) throws IOException, InterruptedException {
+        for (String arg : args) {
+            if (arg.equals("-gc"))
+                reportGC = true;
+            else
+                filter = arg;
+        }
+        StdOut.printf("%-36s %14s %10s %14s\n", "Benchmark", "ns/op", "+/-", "bytes/op");
+
+        deployBenchmarks();
+        revealBenchmarks();
+        repaintBenchmarks();
+        replayBenchmark();
+        batchBenchmark();
+        leaderboardBenchmarks();
+
+        if (sink == 42)
+            StdOut.println(""); // never happens, but the JIT can't know that
+    }
+
+    // Deploying mines at each level, and on large custom boards.
+    private static void deployBenchmarks() {
+        deploy("deploy.easy", 20, 30, 5);
+        deploy("deploy.medium", 20, 30, 20);
+        deploy("deploy.hard", 20, 30, 100);
+        deploy("deploy.custom.1000x1000.15%", 1000, 1000, 150000);
+        deploy("deploy.custom.1000x1000.50%", 1000, 1000, 500000);
+        deploy("deploy.custom.1000x1000.90%", 1000, 1000, 900000);
+    }
+
+    private static void deploy(String name, int rows, int cols, int mines) {
+        Board board = new Board(rows, cols);
+        measure(name, new Bench() {
+            public void setup() {
+                board.reset();
+            }
+            public int run() {
+                board.deployMines(mines);
+                sink += board.getNumMinesDeployed();
+                return 1;
+            }
+        });
+    }
+
+    // Revealing single numbered cells, and cascades through open regions.
+    private static void revealBenchmarks() {
+        StdRandom.setSeed(1234);
+        Board single = new Board(1000, 1000);
+        measure("reveal.single", new Bench() {
+            int[] numbered = new int[0];
+            public void setup() {
+                single.reset();
+                single.deployMines(150000);
+                int n = 0;
+                numbered = new int[single.getNumCells()];
+                for (int i = 0; i < single.getNumCells(); i++) {
+                    int state = single.getState(i);
+                    if ((state & Board.MINE) == 0 && (state & Board.COUNT_MASK) != 0)
+                        numbered[n++] = i;
+                }
+                numbered = Arrays.copyOf(numbered, n);
+            }
+            public int run() {
+                int cols = single.getNumCols();
+                for (int i : numbered)
+                    sink += single.reveal(i / cols, i % cols);
+                return numbered.length;
+            }
+        });
+
+        Board cascade = new Board(1000, 1000);
+        measure("reveal.cascade.1000x1000", new Bench() {
+            int start;
+            public void setup() {
+                cascade.reset();
+                cascade.deployMines(20000);
+                start = 0;
+                while ((cascade.getState(start) & (Board.MINE | Board.COUNT_MASK)) != 0)
+                    start++;
+            }
+            public int run() {
+                int cols = cascade.getNumCols();
+                sink += cascade.reveal(start / cols, start % cols);
+                return 1;
+            }
+        });
+    }
+
+    // Drawing a full view of the board with Cell.repaint(), on the canvas of
+    // a real game window: every cell, as after the window is uncovered, and
+    // none, as on a frame where nothing on the board changed.
+    private static void repaintBenchmarks() throws InterruptedException {
+        if (!"repaint.fullview".contains(filter) && !"repaint.unchanged".contains(filter))
+            return;
+        if (GraphicsEnvironment.isHeadless()) {
+            StdOut.printf("%-36s needs a display, skipped\n", "repaint");
+            return;
+        }
+        // The GUI system only hands out the canvas while drawing the window,
+        // so keep the one the game's background is drawn on.
+        int rows = Game.MAX_VIEW_ROWS, cols = Game.MAX_VIEW_COLS;
+        GUI.Canvas[] canvas = new GUI.Canvas[1];
+        CountDownLatch shown = new CountDownLatch(1);
+        Game game = new Game("bench", "hard", rows, cols) {
+            public void repaintWindowBackground(GUI.Canvas c) {
+                super.repaintWindowBackground(c);
+                canvas[0] = c;
+                shown.countDown();
+            }
+        };
+        Thread window = new Thread(game::showAndWait, "benchmark-window");
+        window.setDaemon(true);
+        window.start();
+        game.requestRepaint();
+        shown.await();
+
+        StdRandom.setSeed(1234);
+        Board board = game.getBoard();
+        board.deployMines(rows * cols / 6);
+        for (int i = 0; i < board.getNumCells(); i += 2) {
+            if ((board.getState(i) & Board.MINE) == 0)
+                board.reveal(i / cols, i % cols);
+        }
+        Cell[] cells = new Cell[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++)
+                cells[r * cols + c] = new Cell(game, r, c, c * Cell.SIZE, r * Cell.SIZE);
+        }
+        measure("repaint.fullview", new Bench() {
+            public void setup() {
+                game.redrawAll();
+            }
+            public int run() {
+                for (Cell cell : cells)
+                    cell.repaint(canvas[0]);
+                return cells.length;
+            }
+        });
+        measure("repaint.unchanged", new Bench() {
+            public void setup() {
+            }
+            public int run() {
+                for (Cell cell : cells)
+                    cell.repaint(canvas[0]);
+                return cells.length;
+            }
+        });
+        game.hide();
+    }
+
+    // Playing back a recorded hard game headless, start to finish.
+    private static void replayBenchmark() {
+        Replay replay = new Replay(1234, Game.NUM_ROWS, Game.NUM_COLS, 100, false, "hard", "bench");
+        Board board = replay.newBoard();
+        for (int i = 0; i < board.getNumCells(); i++) {
+            if ((board.getState(i) & (Board.MINE | Board.REVEALED)) == 0) {
+                replay.record(i / board.getNumCols(), i % board.getNumCols(), Replay.LEFT, i * 1000000L);
+                board.reveal(i / board.getNumCols(), i % board.getNumCols());
+            }
+        }
+        measure("replay.headless.hard", new Bench() {
+            public void setup() {
+            }
+            public int run() {
+                sink += replay.play().getNumRevealed();
+                return 1;
+            }
+        });
+    }
+
+    // Applying a batch of moves to a big board, one per cell in row order,
+    // so most of them land on cells a cascade has already opened.
+    private static void batchBenchmark() {
+        StdRandom.setSeed(1234);
+        Board board = new Board(1000, 1000);
+        int[] moves = new int[3 * board.getNumCells()];
+        measure("moves.batch.1000x1000", new Bench() {
+            int count;
+            public void setup() {
+                board.reset();
+                board.deployMines(100000);
+                count = 0;
+                for (int i = 0; i < board.getNumCells(); i++) {
+                    if ((board.getState(i) & Board.MINE) == 0) {
+                        moves[3 * count] = i / board.getNumCols();
+                        moves[3 * count + 1] = i % board.getNumCols();
+                        moves[3 * count + 2] = Replay.LEFT;
+                        count++;
+                    }
+                }
+            }
+            public int run() {
+                sink += board.applyMoves(moves, 0, count);
+                return count;
+            }
+        });
+    }
+
+    // Inserting into, saving, and loading the top scores, with no window.
+    // They are saved in a temporary directory, which is deleted afterwards.
+    private static void leaderboardBenchmarks() throws IOException {
+        if (!"leaderboard.insert leaderboard.save leaderboard.load".contains(filter))
+            return;
+        Path dir = Files.createTempDirectory("benchmarks");
+        try {
+            TopScores scores = new TopScores(dir.resolve("leaderboard.dat").toString());
+            String[] levels = TopScores.LEVELS;
+            measure("leaderboard.insert", new Bench() {
+                int k = 0;
+                public void setup() {
+                }
+                public int run() {
+                    for (int i = 0; i < 1000; i++, k++)
+                        sink += scores.insert(levels[k % 3], "bench", (k * 7919) % 1000);
+                    return 1000;
+                }
+            });
+            measure("leaderboard.save", new Bench() {
+                public void setup() {
+                }
+                public int run() {
+                    scores.save();
+                    return 1;
+                }
+            });
+            measure("leaderboard.load", new Bench() {
+                public void setup() {
+                }
+                public int run() {
+                    scores.load();
+                    return 1;
+                }
+            });
+        } finally {
+            for (String name : new String[] { "leaderboard.dat", "leaderboard.dat.tmp", "leaderboard.dat.journal" })
+                Files.deleteIfExists(dir.resolve(name));
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    // Run one benchmark and print its results.
+    private static void measure(String name, Bench bench) {
+        if (!name.contains(filter))
+            return;
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long gcCount = gcCount(), gcTime = gcTime();
+
+        double[] nanosPerOp = new double[MEASURED_ROUNDS];
+        long totalOps = 0, totalBytes = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long nanos = 0, bytes = 0, ops = 0;
+            while (nanos < MIN_ROUND_NANOS) {
+                bench.setup();
+                long b0 = threads.getThreadAllocatedBytes(thread);
+                long t0 = System.nanoTime();
+                ops += bench.run();
+                nanos += System.nanoTime() - t0;
+                bytes += threads.getThreadAllocatedBytes(thread) - b0;
+            }
+            if (round >= WARMUP_ROUNDS) {
+                nanosPerOp[round - WARMUP_ROUNDS] = (double)nanos / ops;
+                totalOps += ops;
+                totalBytes += bytes;
+            }
+        }
+
+        double mean = 0;
+        for (double t : nanosPerOp)
+            mean += t / MEASURED_ROUNDS;
+        double var = 0;
+        for (double t : nanosPerOp)
+            var += (t - mean) * (t - mean) / (MEASURED_ROUNDS - 1);
+        StdOut.printf("%-36s %14.1f %10.1f %14.1f\n", name, mean, Math.sqrt(var),
+                (double)totalBytes / totalOps);
+        if (reportGC)
+            StdOut.printf("%-36s %14d collections, %d ms\n", "  gc", gcCount() - gcCount, gcTime() - gcTime);
+    }
+
+    // Total garbage collections so far, over all collectors.
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            n += Math.max(gc.getCollectionCount(), 0);
+        return n;
+    }
+
+    // Total time spent in garbage collection so far, in milliseconds.
+    private static long gcTime() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            n += Math.max(gc.getCollectionTime(), 0);
+        return n;
+    }
+
+}
@@ -0,0 +1,582 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  Board holds the state of a minesweeper game board. It has no
+ *  display at all, so it can be used for simulations and tests as
+ *  well as by the Game window.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>Board</i> object holds the state of every cell of a minesweeper board.
+ * Each cell is packed into a single byte of a flat array, indexed by
+ * row * numCols + col:
+ *   - the low four bits hold the number of neighboring mines (0 to 8)
+ *   - one bit says whether a mine is hidden in the cell
+ *   - one bit says whether the cell has been revealed
+ *   - one bit says whether the cell has been flagged
+ * A Board does not draw anything. The Game and Cell classes are views that
+ * draw the board on the screen.
+ */
+public class Board {
+
+    /**
+     * Mask for the bits holding the neighbor mine count of a cell.
+     */
+    public static final int COUNT_MASK = 0x0F;
+
+    /**
+     * Bit set when a mine is hidden in a cell.
+     */
+    public static final int MINE = 0x10;
+
+    /**
+     * Bit set when a cell has been revealed.
+     */
+    public static final int REVEALED = 0x20;
+
+    /**
+     * Bit set when a cell has been flagged.
+     */
+    public static final int FLAGGED = 0x40;
+
+    private final int numRows; // number of cells tall
+    private final int numCols; // number of cells wide
+
+    // One packed byte per cell, see above.
+    private final byte[] cells;
+
+    private int numMines = 0;    // number of mines deployed
+    private int numRevealed = 0; // number of safe cells revealed so far
+
+    // Indices of the safe cells revealed so far, in the order they were
+    // revealed. The first numRevealed entries are used. This doubles as the
+    // work queue when a reveal cascades through cells with no neighboring
+    // mines, and it tells callers exactly which cells a reveal opened.
+    private int[] revealOrder = new int[16];
+
+    // Indices of the cells with mines, in increasing order, so the mines can
+    // be visited without looking at every cell. The first numMines entries
+    // are used. This is built by countNeighborMines(), which is called once
+    // the mines are in place, and rebuilt the next time it is needed if a
+    // mine is added or removed after that.
+    private int[] mineCells = new int[0];
+    private boolean mineCellsValid = true;
+
+    // Whether or not a mine has been revealed.
+    private boolean lost = false;
+
+    // Number of cells flagged, and for each cell the number of its neighbors
+    // that are flagged. Both are kept up to date as flags are planted and
+    // removed, so neither is ever recounted. The per-cell counts are only
+    // made once the first flag is planted, so boards that never get a flag
+    // don't pay for them.
+    private int numFlags = 0;
+    private byte[] neighborFlags;
+
+    /**
+     * Constructor: Initializes an empty board with the given size. No mines are
+     * deployed and every cell is hidden.
+     * @param rows the number of cells tall.
+     * @param cols the number of cells wide.
+     */
+    public Board(int rows, int cols) {
+        if (rows <= 0 || cols <= 0)
+            throw new IllegalArgumentException("board size must be positive: " + rows + "x" + cols);
+        this.numRows = rows;
+        this.numCols = cols;
+        this.cells = new byte[Math.multiplyExact(rows, cols)];
+    }
+
+    /**
+     * Get the number of cells tall the board is.
+     */
+    public int getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * Get the number of cells wide the board is.
+     */
+    public int getNumCols() {
+        return numCols;
+    }
+
+    /**
+     * Get the total number of cells on the board.
+     */
+    public int getNumCells() {
+        return cells.length;
+    }
+
+    /**
+     * Get the index of the cell at the given row and column.
+     */
+    public int index(int row, int col) {
+        return row * numCols + col;
+    }
+
+    /**
+     * Returns true if the given row and column are on the board.
+     */
+    public boolean inBounds(int row, int col) {
+        return row >= 0 && row < numRows && col >= 0 && col < numCols;
+    }
+
+    /**
+     * Get the packed state byte of the cell at the given index.
+     */
+    public int getState(int i) {
+        return cells[i];
+    }
+
+    /**
+     * Returns true if a mine is hidden in the given cell.
+     */
+    public boolean isMine(int row, int col) {
+        return (cells[index(row, col)] & MINE) != 0;
+    }
+
+    /**
+     * Returns true if the given cell has been revealed.
+     */
+    public boolean isRevealed(int row, int col) {
+        return (cells[index(row, col)] & REVEALED) != 0;
+    }
+
+    /**
+     * Returns true if the given cell has been flagged.
+     */
+    public boolean isFlagged(int row, int col) {
+        return (cells[index(row, col)] & FLAGGED) != 0;
+    }
+
+    /**
+     * Returns the number of mines in cells neighboring the given cell.
+     */
+    public int getNeighborMineCount(int row, int col) {
+        return cells[index(row, col)] & COUNT_MASK;
+    }
+
+    /**
+     * Returns the number of flags in cells neighboring the given cell.
+     */
+    public int getNeighborFlagCount(int row, int col) {
+        return neighborFlags == null ? 0 : neighborFlags[index(row, col)];
+    }
+
+    /**
+     * Get the number of mines that are deployed.
+     */
+    public int getNumMinesDeployed() {
+        return numMines;
+    }
+
+    /**
+     * Get the number of cells flagged.
+     */
+    public int getNumFlags() {
+        return numFlags;
+    }
+
+    /**
+     * Get the number of safe cells revealed so far.
+     */
+    public int getNumRevealed() {
+        return numRevealed;
+    }
+
+    /**
+     * Get the index of the k^th safe cell to be revealed, counting from zero.
+     * After a call to reveal() returns n, the cells it revealed are numbers
+     * getNumRevealed()-n through getNumRevealed()-1.
+     */
+    public int getRevealedCell(int k) {
+        return revealOrder[k];
+    }
+
+    /**
+     * Get the index of the k^th mine, counting from zero, in order of index.
+     * k must be less than getNumMinesDeployed(). This lets the mines be
+     * visited without looking at every cell.
+     */
+    public int getMineCell(int k) {
+        if (!mineCellsValid)
+            indexMines();
+        return mineCells[k];
+    }
+
+    /**
+     * Get the number of hidden cells remaining to be revealed.
+     */
+    public int getNumCellsRemaining() {
+        return cells.length - numRevealed;
+    }
+
+    /**
+     * Returns true if every safe cell has been revealed.
+     */
+    public boolean isWon() {
+        return !lost && numRevealed == cells.length - numMines;
+    }
+
+    /**
+     * Returns true if a mine has been revealed.
+     */
+    public boolean isLost() {
+        return lost;
+    }
+
+    /**
+     * Deploy the given number of mines at random, using StdRandom. This gets
+     * called once during game setup, on a board with no mines yet. See
+     * MinePlacer for how the cells are picked.
+     */
+    public void deployMines(int mines) {
+        if (numMines != 0)
+            throw new IllegalStateException("mines are already deployed");
+        MinePlacer.deploy(this, mines);
+    }
+
+    /**
+     * Add or remove the mine in the cell at the given index. This does not
+     * update any neighbor mine counts, so call countNeighborMines() after all
+     * the mines are in place.
+     * @return true if the cell changed.
+     */
+    public boolean setMine(int i, boolean mine) {
+        if (((cells[i] & MINE) != 0) == mine)
+            return false;
+        if (mine) {
+            cells[i] |= MINE;
+            numMines++;
+        } else {
+            cells[i] &= ~MINE;
+            numMines--;
+        }
+        mineCellsValid = false;
+        return true;
+    }
+
+    /**
+     * Compute the neighbor mine count of every cell from scratch, in one sweep
+     * over the board. The count for a cell is the number of mines in the 3x3
+     * box around it, minus its own mine. Box sums are done in two steps: each
+     * row is summed with itself shifted left and right, then each row of those
+     * sums is added to the rows above and below. Rows are padded with zeros so
+     * the edges of the board need no special cases, and the inner loops are
+     * simple enough for the JIT to vectorize.
+     */
+    public void countNeighborMines() {
+        byte[] zero = new byte[numCols];       // row above the top or below the bottom
+        byte[] mines = new byte[numCols + 2];  // mine bits of one row, padded
+        byte[] above = zero;                   // sums for the row above
+        byte[] here = new byte[numCols];       // sums for this row
+        byte[] below = new byte[numCols];      // sums for the row below
+        byte[] spare = new byte[numCols];
+        rowSums(0, mines, here);
+        for (int row = 0; row < numRows; row++) {
+            if (row + 1 < numRows)
+                rowSums(row + 1, mines, below);
+            else
+                below = zero;
+            int base = row * numCols;
+            for (int col = 0; col < numCols; col++) {
+                int cell = cells[base + col];
+                int count = above[col] + here[col] + below[col] - ((cell >> 4) & 1);
+                cells[base + col] = (byte)((cell & ~COUNT_MASK) | count);
+            }
+            // Roll the rows of sums down by one, reusing the oldest array.
+            byte[] t = (above == zero) ? spare : above;
+            above = here;
+            here = below;
+            below = t;
+        }
+        indexMines();
+    }
+
+    // List the cells with mines in mineCells.
+    private void indexMines() {
+        if (mineCells.length < numMines)
+            mineCells = new int[numMines];
+        int n = 0;
+        for (int i = 0; n < numMines; i++) {
+            if ((cells[i] & MINE) != 0)
+                mineCells[n++] = i;
+        }
+        mineCellsValid = true;
+    }
+
+    // Fill sums with the number of mines in each cell of the given row plus
+    // its left and right neighbors.
+    private void rowSums(int row, byte[] mines, byte[] sums) {
+        int base = row * numCols;
+        for (int col = 0; col < numCols; col++)
+            mines[col + 1] = (byte)((cells[base + col] >> 4) & 1);
+        for (int col = 0; col < numCols; col++)
+            sums[col] = (byte)(mines[col] + mines[col + 1] + mines[col + 2]);
+    }
+
+    /**
+     * Clear the board back to how it was when constructed, with no mines and
+     * every cell hidden, so it can be used for another game without making a
+     * new one.
+     */
+    public void reset() {
+        java.util.Arrays.fill(cells, (byte)0);
+        numMines = 0;
+        numRevealed = 0;
+        lost = false;
+        mineCellsValid = true;
+        numFlags = 0;
+        if (neighborFlags != null)
+            java.util.Arrays.fill(neighborFlags, (byte)0);
+    }
+
+    /**
+     * Get one bit-plane of the board: bit i of the result, i.e. bit i % 64 of
+     * word i / 64, is set if cell i has any of the given state bits set, e.g.
+     * MINE, REVEALED, or FLAGGED. The mine bit-plane is made from the list of
+     * mines, without looking at every cell.
+     */
+    public long[] getBits(int mask) {
+        long[] bits = new long[(cells.length + 63) >>> 6];
+        if (mask == MINE) {
+            for (int k = 0; k < numMines; k++) {
+                int i = getMineCell(k);
+                bits[i >>> 6] |= 1L << i;
+            }
+            return bits;
+        }
+        for (int i = 0; i < cells.length; i++) {
+            if ((cells[i] & mask) != 0)
+                bits[i >>> 6] |= 1L << i;
+        }
+        return bits;
+    }
+
+    /**
+     * Set the whole board from bit-planes like those from getBits(), e.g. when
+     * a saved game is loaded. Neighbor mine counts are computed from the
+     * mines, and the revealed safe cells are listed in getRevealedCell() in
+     * order of index, since the order they were revealed in isn't known.
+     * @param mines the cells with a mine hidden in them.
+     * @param revealed the cells that have been revealed.
+     * @param flagged the cells that have been flagged.
+     */
+    public void setBits(long[] mines, long[] revealed, long[] flagged) {
+        int words = (cells.length + 63) >>> 6;
+        if (mines.length != words || revealed.length != words || flagged.length != words)
+            throw new IllegalArgumentException("bit-planes don't match the board size");
+        reset();
+        int n = 0;
+        for (int w = 0; w < words; w++)
+            n += Long.bitCount(revealed[w] & ~mines[w]);
+        if (revealOrder.length < n)
+            revealOrder = new int[n];
+        for (int w = 0; w < words; w++) {
+            long m = mines[w], r = revealed[w], f = flagged[w];
+            long any = m | r | f;
+            if (w == words - 1 && (cells.length & 63) != 0 && (any >>> (cells.length & 63)) != 0)
+                throw new IllegalArgumentException("bit-planes have cells past the end of the board");
+            if ((m & r) != 0)
+                lost = true;
+            // Visit only the cells with something set, lowest first.
+            while (any != 0) {
+                long bit = any & -any;
+                any ^= bit;
+                int i = (w << 6) + Long.numberOfTrailingZeros(bit);
+                int state = 0;
+                if ((m & bit) != 0) {
+                    state |= MINE;
+                    numMines++;
+                } else if ((r & bit) != 0) {
+                    revealOrder[numRevealed++] = i;
+                }
+                if ((r & bit) != 0)
+                    state |= REVEALED;
+                if ((f & bit) != 0)
+                    state |= FLAGGED;
+                cells[i] = (byte)state;
+            }
+        }
+        countNeighborMines();
+        for (int w = 0; w < words; w++) {
+            for (long f = flagged[w]; f != 0; f &= f - 1) {
+                numFlags++;
+                addNeighborFlags((w << 6) + Long.numberOfTrailingZeros(f), 1);
+            }
+        }
+    }
+
+    /**
+     * Reveal the given cell. Revealing a mine loses the game. If the cell has
+     * no neighboring mines, its neighbors are revealed too, and so on, until
+     * the whole open region and its border of numbered cells is revealed.
+     * Cells that are already revealed or are flagged are left alone.
+     * @return the number of safe cells that were newly revealed, which are the
+     * most recent entries in getRevealedCell().
+     */
+    public int reveal(int row, int col) {
+        int i = index(row, col);
+        if ((cells[i] & (REVEALED | FLAGGED)) != 0)
+            return 0;
+        cells[i] |= REVEALED;
+        if ((cells[i] & MINE) != 0) {
+            lost = true;
+            return 0;
+        }
+        int start = numRevealed;
+        push(i);
+        cascade(start);
+        return numRevealed - start;
+    }
+
+    /**
+     * Plant a flag on the given cell, or take it away if there is one already.
+     * Revealed cells can't be flagged.
+     * @return true if the cell changed.
+     */
+    public boolean toggleFlag(int row, int col) {
+        int i = index(row, col);
+        if ((cells[i] & REVEALED) != 0)
+            return false;
+        cells[i] ^= FLAGGED;
+        int change = (cells[i] & FLAGGED) != 0 ? 1 : -1;
+        numFlags += change;
+        addNeighborFlags(i, change);
+        return true;
+    }
+
+    // Add the given change to the flagged neighbor count of each neighbor of
+    // the cell at the given index.
+    private void addNeighborFlags(int i, int change) {
+        if (neighborFlags == null)
+            neighborFlags = new byte[cells.length];
+        int row = i / numCols;
+        int col = i - row * numCols;
+        int r0 = Math.max(row - 1, 0), r1 = Math.min(row + 1, numRows - 1);
+        int c0 = Math.max(col - 1, 0), c1 = Math.min(col + 1, numCols - 1);
+        for (int r = r0; r <= r1; r++) {
+            int base = r * numCols;
+            for (int c = c0; c <= c1; c++)
+                neighborFlags[base + c] += change;
+        }
+        neighborFlags[i] -= change; // a cell isn't its own neighbor
+    }
+
+    /**
+     * Chord on the given cell: if it is revealed and has exactly as many
+     * flagged neighbors as neighboring mines, reveal all of its other hidden
+     * neighbors, as if each had been clicked. If a flag is wrong this reveals
+     * a mine and loses the game.
+     * @return the number of safe cells that were newly revealed, which are the
+     * most recent entries in getRevealedCell().
+     */
+    public int chord(int row, int col) {
+        int i = index(row, col);
+        int count = cells[i] & COUNT_MASK;
+        if ((cells[i] & REVEALED) == 0 || count == 0 || neighborFlags == null || neighborFlags[i] != count)
+            return 0;
+        int start = numRevealed;
+        int r0 = Math.max(row - 1, 0), r1 = Math.min(row + 1, numRows - 1);
+        int c0 = Math.max(col - 1, 0), c1 = Math.min(col + 1, numCols - 1);
+        for (int r = r0; r <= r1 && !lost; r++) {
+            for (int c = c0; c <= c1 && !lost; c++)
+                reveal(r, c);
+        }
+        return numRevealed - start;
+    }
+
+    /**
+     * Apply a batch of moves in order, following the same rules as
+     * Game.click(), and stop as soon as the game is won or lost. Each move is
+     * three ints in the array: the row, the column, and the button, one of
+     * Replay.LEFT, Replay.MIDDLE, or Replay.RIGHT, which reveal, chord, and
+     * flag the cell. Moves off the board are skipped. This does the same work
+     * as making each move with reveal(), chord(), or toggleFlag(), but
+     * without any per-move checks beyond what each move needs.
+     * @param moves the moves, three ints each.
+     * @param from the number of the first move to apply.
+     * @param to one past the number of the last move to apply.
+     * @return the number of the move after the last one applied, which is
+     * less than to if the game ended first. If the game was lost, the move
+     * before it revealed a mine.
+     */
+    public int applyMoves(int[] moves, int from, int to) {
+        int safe = cells.length - numMines;
+        int k = from;
+        while (k < to && !lost && numRevealed != safe) {
+            int row = moves[3 * k], col = moves[3 * k + 1], button = moves[3 * k + 2];
+            k++;
+            if (!inBounds(row, col))
+                continue;
+            if (button == Replay.RIGHT) {
+                toggleFlag(row, col);
+                continue;
+            }
+            if (button == Replay.MIDDLE) {
+                chord(row, col);
+                continue;
+            }
+            int i = row * numCols + col;
+            if ((cells[i] & (REVEALED | FLAGGED)) != 0)
+                continue;
+            cells[i] |= REVEALED;
+            if ((cells[i] & MINE) != 0) {
+                lost = true;
+                break;
+            }
+            int start = numRevealed;
+            push(i);
+            cascade(start);
+        }
+        return k;
+    }
+
+    // Record a newly revealed safe cell.
+    private void push(int i) {
+        if (numRevealed == revealOrder.length)
+            revealOrder = java.util.Arrays.copyOf(revealOrder,
+                    (int)Math.min(2L * revealOrder.length, cells.length));
+        revealOrder[numRevealed++] = i;
+    }
+
+    // Open the neighbors of every zero cell revealed since the given position
+    // in revealOrder. The revealed bit marks cells already queued, so each cell
+    // is visited once. This uses revealOrder as a queue instead of recursion,
+    // so even huge open regions can't overflow the stack.
+    private void cascade(int head) {
+        while (head < numRevealed) {
+            int i = revealOrder[head++];
+            if ((cells[i] & COUNT_MASK) != 0)
+                continue;
+            int row = i / numCols;
+            int col = i - row * numCols;
+            int r0 = Math.max(row - 1, 0), r1 = Math.min(row + 1, numRows - 1);
+            int c0 = Math.max(col - 1, 0), c1 = Math.min(col + 1, numCols - 1);
+            for (int r = r0; r <= r1; r++) {
+                int base = r * numCols;
+                for (int c = c0; c <= c1; c++) {
+                    int j = base + c;
+                    // No neighbor of a zero cell is a mine, so only revealed
+                    // and flagged cells need to be skipped.
+                    if ((cells[j] & (REVEALED | FLAGGED)) == 0) {
+                        cells[j] |= REVEALED;
+                        push(j);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reveal every mine on the board, e.g. after the game has been lost. This
+     * does not change the count of revealed cells. Only the mines are
+     * visited, so this is quick even on huge boards with few mines.
+     */
+    public void showMines() {
+        for (int k = 0; k < numMines; k++)
+            cells[getMineCell(k)] |= REVEALED;
+    }
+
+}
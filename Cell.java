@@ -3,19 +3,20 @@
  *  Email:    kwalsh@holycross.edu
  *  Written:  7/13/2015
  *  
- *  Each Cell object manages information about one "cell" and draws a
- *  single "cell" of the game grid. 
+ *  Each Cell object draws a single "cell" of the game grid. The
+ *  state of the cell is kept in a Board. 
  *----------------------------------------------------------------*/
 
 import GUI.*;
-import java.awt.Color;
 
 /**
- * A <i>Cell</i> object holds all information about the state of a single cell
- * of the minesweeper game board. This includes:
+ * A <i>Cell</i> object draws a single cell of the minesweeper game board. The
+ * state of the cell is not stored here, it is kept in a Board object. This
+ * includes:
  *   - whether a mine is hidden in this cell or not
  *   - how many of its neighboring cells contain mines
  *   - whether it has been revealed yet or is still hidden
+ *   - whether it has been flagged
  * Each Cell object knows how to draw itself in a graphical window, and it will
  * draw itself in different styles, depending on all the above state information.
  */
@@ -38,102 +39,74 @@ public class Cell extends Widget {
      *      this.width
      */
 
-    /**
-     * Whether a mine is hidden in this cell or not.
-     */
-    protected boolean isMine;
+    // The game this cell is part of, and the board holding its state.
+    private Game game;
+    private Board board;
 
-    /**
-     * Whether this cell is "revealed" or not.
-     */
-    protected boolean isRevealed;
+    // The position of this cell on the board.
+    private int row, col;
 
-    /**
-     * Count of how many neighboring cells have mines.
-     */
-    protected int neighborMineCount;
+    // Added to a cell's board state when it is the current hint, so the state
+    // still fits in an int with the hint as one more bit.
+    private static final int HINT = 0x100;
+
+    // Pictures of each way a cell can look.
+    private static CellSprites sprites = CellSprites.forSize(SIZE);
+
+    // The board state this cell showed the last time it was drawn, and the
+    // game's redraw count at that time. If neither has changed since, what is
+    // on the screen is still correct and the cell doesn't need to be redrawn.
+    private int drawnState = -1;
+    private int drawnRedraw = -1;
 
     /**
      * Constructor: Initialize a cell to be drawn at the given x, y coordinates
-     * on the screen. The cell will be blank. That is, it will not be a mine,
-     * and it will have no neighboring mines so a neighbor mine count of zero.
+     * on the screen. The cell shows the state of the given row and column of
+     * the game's board.
      */
-    public Cell(int x, int y) {
+    public Cell(Game game, int row, int col, int x, int y) {
         super(x, y, SIZE, SIZE);
-        this.isMine = false;
-        this.isRevealed = false;
-        this.neighborMineCount = 0;
+        this.game = game;
+        this.board = game.getBoard();
+        this.row = row;
+        this.col = col;
     }
 
     /**
-     * Hide a mine in this cell by changing the isMine variable to true.
+     * Change which row and column of the board this cell shows, e.g. when the
+     * board is scrolled.
      */
-    public void plantMine() {
-        isMine = true;
+    public void setPosition(int row, int col) {
+        this.row = row;
+        this.col = col;
     }
 
     /**
      * Returns true if a mine is hidden in this cell, otherwise returns false.
      */
     public boolean isMine() {
-        return isMine;
-    }
-
-    /**
-     * Increment the neighbor mine count variable by one. 
-     */
-    public void incrementNeighborMineCount() {
-        neighborMineCount++;
-    }
-
-    /**
-     * Set the neighbor mine count variable to a given value.
-     */
-    public void setNeighborMineCount(int count) {
-        neighborMineCount = count;
+        return board.isMine(row, col);
     }
 
     /**
      * Returns the value of the neighbor mine count variable.
      */
     public int getNeighborMineCount() {
-        return neighborMineCount;
-    }
-
-    /**
-     * Change this cell so that it is "revealed" by setting isRevealed to true.
-     */
-    public void reveal() {
-        isRevealed = true;
+        return board.getNeighborMineCount(row, col);
     }
 
     /**
      * Returns true if this cell is "revealed", otherwise returns false.
      */
     public boolean isRevealed() {
-        return isRevealed;
-    }
-
-    /**
-     * Hide a mine in this cell by changing the isMine variable to true.
-     */
-    public void makeMine() {
-        isMine = true;
-    }
-
-    /**
-     * Change this cell so that it shows the mine that is hiding in it.
-     */
-    public void showMine() {
-        if (isMine)
-            isRevealed = true;
+        return board.isRevealed(row, col);
     }
 
     /**
      * Check whether there are neighboring mines.
      */
     public boolean coastIsClear() {
-        return (neighborMineCount == 0);
+        return (getNeighborMineCount() == 0);
     }
 
     /**
@@ -145,36 +118,23 @@ public class Cell extends Widget {
      * @param canvas the canvas on which to draw.
      */
     public void repaint(GUI.Canvas canvas) {
-
-        if (!isRevealed) {
-            canvas.setPenColor(Canvas.GRAY); 
-            canvas.raisedBevelRectangle(x, y, SIZE, SIZE, 4.0);
-        }
-        if (isRevealed()) {
-            if (!isMine()) {
-                canvas.setPenColor(Canvas.GREEN);
-                canvas.sunkenBevelRectangle(x, y, SIZE, SIZE, 4.0);
-                if (neighborMineCount == 1) {
-                    canvas.setPenColor(Canvas.BLACK);
-                    canvas.setFont("SansSerif_Bold", 12);
-                    canvas.text(x + 10, y+ 10, ""+ neighborMineCount);
-                } 
-                else if(neighborMineCount == 2){
-                    canvas.setPenColor(Canvas.BLUE);
-                    canvas.setFont("SansSerif_Bold", 12);
-                    canvas.text(x + 10, y+ 10, ""+ neighborMineCount);
-                }
-                else if (neighborMineCount > 2) {
-                    canvas.setPenColor(Canvas.RED);
-                    canvas.setFont("SansSerif_Bold", 12);
-                    canvas.text(x + 10, y+ 10, ""+ neighborMineCount);
-                }
-            } else {
-                canvas.setPenColor(Canvas.RED);
-                canvas.sunkenBevelRectangle(x, y, SIZE, SIZE, 4.0);
-
-            }
-    }
-
+        // Skip drawing if nothing has changed since last time. Whether this
+        // cell is the current hint counts as part of its state.
+        int i = board.index(row, col);
+        int state = board.getState(i);
+        if (i == game.getHintCell())
+            state |= HINT;
+        if (state == drawnState && game.getRedrawCount() == drawnRedraw)
+            return;
+        drawnState = state;
+        drawnRedraw = game.getRedrawCount();
+
+        // Every look a cell can have is drawn ahead of time, so this is just
+        // a matter of copying the right picture. Pictures are placed by their
+        // center, not their corner.
+        int sprite = CellSprites.spriteFor(state, board.isLost());
+        if ((state & HINT) != 0 && sprite == CellSprites.HIDDEN)
+            sprite = CellSprites.HINT;
+        canvas.picture(x + SIZE/2.0, y + SIZE/2.0, sprites.getFile(sprite));
     }
 }
@@ -0,0 +1,183 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  CellSprites draws every possible look of a cell once, ahead of
+ *  time, so cells can be drawn on the screen by copying a picture.
+ *----------------------------------------------------------------*/
+
+import GUI.*;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import javax.imageio.ImageIO;
+
+/**
+ * A <i>CellSprites</i> object holds a pre-drawn picture of a cell in each of
+ * the ways a cell can look: hidden, revealed with 0 to 8 neighboring mines, a
+ * mine, flagged, wrongly flagged, and hidden but suggested as a hint. The
+ * pictures are drawn once for each cell size and saved as image files, then
+ * Cell.repaint() just puts the right file on the canvas, with no fonts, text,
+ * or bevels to work out every frame. They would be kept only in memory, but
+ * Canvas.picture() takes nothing but a file name.
+ */
+public class CellSprites {
+
+    /**
+     * Sprites 0 through 8 are revealed safe cells with that many neighboring
+     * mines. These are the other sprites.
+     */
+    public static final int HIDDEN = 9;
+    public static final int MINE = 10;
+    public static final int FLAGGED = 11;
+    public static final int WRONG_FLAG = 12;
+    public static final int HINT = 13;
+
+    /**
+     * The number of different sprites.
+     */
+    public static final int NUM_SPRITES = 14;
+
+    // Width of the bevel around each cell, in pixels, same as Cell used.
+    private static final int BEVEL = 4;
+
+    // The sprites made so far, one set for each cell size.
+    private static HashMap<Integer, CellSprites> cache = new HashMap<Integer, CellSprites>();
+
+    // The image file for each sprite.
+    private String[] files = new String[NUM_SPRITES];
+
+    /**
+     * Get the sprites for cells of the given size, drawing them the first time
+     * this size is asked for.
+     */
+    public static synchronized CellSprites forSize(int size) {
+        CellSprites sprites = cache.get(size);
+        if (sprites == null) {
+            sprites = new CellSprites(size);
+            cache.put(size, sprites);
+        }
+        return sprites;
+    }
+
+    /**
+     * Get the image file for the given sprite, to be drawn using
+     * canvas.picture(), which places it by its center. The same String is
+     * returned every time.
+     */
+    public String getFile(int sprite) {
+        return files[sprite];
+    }
+
+    /**
+     * Get which sprite shows a cell with the given Board state byte.
+     * @param state the cell's state, from Board.getState().
+     * @param gameLost whether the game has been lost, in which case flags on
+     * cells without mines are shown as mistakes.
+     */
+    public static int spriteFor(int state, boolean gameLost) {
+        if ((state & Board.REVEALED) == 0) {
+            if ((state & Board.FLAGGED) == 0)
+                return HIDDEN;
+            if (gameLost && (state & Board.MINE) == 0)
+                return WRONG_FLAG;
+            return FLAGGED;
+        }
+        if ((state & Board.MINE) != 0)
+            return MINE;
+        return state & Board.COUNT_MASK;
+    }
+
+    // Draw all the sprites for the given cell size and save them to files.
+    private CellSprites(int size) {
+        BufferedImage flower = null;
+        try {
+            flower = ImageIO.read(new File("flower.png"));
+        } catch (IOException e) {
+            // Flags will be drawn without the flower.
+        }
+        try {
+            File dir = java.nio.file.Files.createTempDirectory("minesweeper-sprites").toFile();
+            dir.deleteOnExit();
+            for (int sprite = 0; sprite < NUM_SPRITES; sprite++) {
+                BufferedImage image = draw(sprite, size, flower);
+                File file = new File(dir, "cell" + size + "-" + sprite + ".png");
+                ImageIO.write(image, "png", file);
+                file.deleteOnExit();
+                files[sprite] = file.getPath();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("can't save cell pictures: " + e.getMessage(), e);
+        }
+    }
+
+    // Draw one sprite, the same way Cell used to draw itself.
+    private static BufferedImage draw(int sprite, int size, BufferedImage flower) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        if (sprite == HIDDEN || sprite == FLAGGED) {
+            bevel(g, size, Canvas.GRAY, true);
+        } else if (sprite == MINE) {
+            bevel(g, size, Canvas.RED, false);
+        } else if (sprite == WRONG_FLAG) {
+            bevel(g, size, Canvas.GRAY, false);
+        } else if (sprite == HINT) {
+            bevel(g, size, Canvas.CYAN, true);
+        } else {
+            bevel(g, size, Canvas.GREEN, false);
+            if (sprite == 1)
+                text(g, size, Canvas.BLACK, "1");
+            else if (sprite == 2)
+                text(g, size, Canvas.BLUE, "2");
+            else if (sprite > 2)
+                text(g, size, Canvas.RED, "" + sprite);
+        }
+        if (sprite == FLAGGED || sprite == WRONG_FLAG) {
+            if (flower != null)
+                g.drawImage(flower, (size - flower.getWidth()) / 2, (size - flower.getHeight()) / 2, null);
+            else
+                text(g, size, Canvas.RED, "F");
+        }
+        if (sprite == WRONG_FLAG) {
+            g.setColor(Canvas.BLACK);
+            g.drawLine(BEVEL, BEVEL, size - BEVEL - 1, size - BEVEL - 1);
+            g.drawLine(BEVEL, size - BEVEL - 1, size - BEVEL - 1, BEVEL);
+        }
+        g.dispose();
+        return image;
+    }
+
+    // Draw a square with a 3D bevel around its edge, either raised (lighter
+    // on the top left) or sunken (darker on the top left).
+    private static void bevel(Graphics2D g, int size, Color color, boolean raised) {
+        Color light = color.brighter();
+        Color dark = color.darker();
+        g.setColor(color);
+        g.fillRect(0, 0, size, size);
+        int[] xs = { 0, size, size - BEVEL, BEVEL, BEVEL, 0 };
+        int[] ys = { 0, 0, BEVEL, BEVEL, size - BEVEL, size };
+        g.setColor(raised ? light : dark);
+        g.fillPolygon(xs, ys, 6);
+        int[] xs2 = { size, size, 0, BEVEL, size - BEVEL, size - BEVEL };
+        int[] ys2 = { 0, size, size, size - BEVEL, size - BEVEL, BEVEL };
+        g.setColor(raised ? dark : light);
+        g.fillPolygon(xs2, ys2, 6);
+    }
+
+    // Draw text centered in the square, in bold.
+    private static void text(Graphics2D g, int size, Color color, String s) {
+        g.setColor(color);
+        g.setFont(new Font("SansSerif", Font.BOLD, 12));
+        FontMetrics fm = g.getFontMetrics();
+        int tx = (size - fm.stringWidth(s)) / 2;
+        int ty = (size - fm.getHeight()) / 2 + fm.getAscent();
+        g.drawString(s, tx, ty);
+    }
+
+}
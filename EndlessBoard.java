@@ -0,0 +1,473 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  EndlessBoard holds the state of a minesweeper board with no edges.
+ *  Like Board it has no display, the EndlessGame window draws it.
+ *----------------------------------------------------------------*/
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An <i>EndlessBoard</i> is a minesweeper board that goes on forever in every
+ * direction. Rows and columns can be any int, including negative ones. The
+ * board is split into square chunks of CHUNK_SIZE by CHUNK_SIZE cells, each
+ * holding one packed state byte per cell just like Board, using the same
+ * Board.MINE, Board.REVEALED, Board.FLAGGED, and Board.COUNT_MASK bits.
+ *
+ * A chunk is only made when something first looks at one of its cells, e.g.
+ * the window drawing it or a reveal cascading into it. Whether a cell has a
+ * mine is worked out by hashing the seed with the cell's row and column, so a
+ * chunk always comes out the same for the same seed, and the neighbor counts
+ * along its edges can be found by hashing the cells just past them, without
+ * making the neighboring chunks. The 3x3 block around row 0, column 0 never
+ * has mines, so a game can always start by revealing that cell.
+ *
+ * At most a given number of chunks are kept in memory. When there are more,
+ * the least recently used chunk is dropped. A chunk nobody has changed can
+ * just be made again when it is next needed. A chunk with revealed or flagged
+ * cells is first written to a spill file, and read back from there when it is
+ * next needed. So memory stays the same no matter how far the player goes,
+ * and the disk only holds the chunks they have actually played on.
+ */
+public class EndlessBoard {
+
+    /**
+     * Number of cells tall and wide each chunk is. This is a power of two.
+     */
+    public static final int CHUNK_SIZE = 64;
+
+    /**
+     * Fewest mines allowed, as a fraction of the cells. With fewer mines than
+     * this, open regions with no neighboring mines could join up and go on
+     * forever, and a single reveal would never finish.
+     */
+    public static final double MIN_DENSITY = 0.12;
+
+    /**
+     * Number of chunks kept in memory unless another number is given to the
+     * constructor. Each takes CHUNK_SIZE * CHUNK_SIZE bytes, i.e. 4 KB.
+     */
+    public static final int MAX_CHUNKS = 256;
+
+    private static final int CHUNK_BITS = Integer.numberOfTrailingZeros(CHUNK_SIZE);
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+
+    // One chunk of cells. dirty is true if the cells have changed since the
+    // chunk was made or last read from the spill file.
+    private static class Chunk {
+        final byte[] cells = new byte[CHUNK_CELLS];
+        boolean dirty;
+    }
+
+    private final long seed;
+    private final double density;
+    private final long threshold; // a cell has a mine if its hash is below this
+    private final int maxChunks;
+
+    // The chunks in memory, by key(), least recently used first.
+    private final LinkedHashMap<Long, Chunk> chunks;
+
+    // The chunk most recently looked up, and its key, so runs of lookups in
+    // the same chunk skip the map. Cleared if that chunk is dropped.
+    private Chunk lastChunk;
+    private long lastKey;
+
+    // The spill file, made the first time a changed chunk is dropped, and the
+    // slot in it that each spilled chunk was written to.
+    private RandomAccessFile spill;
+    private File spillFile;
+    private final HashMap<Long, Integer> slots = new HashMap<Long, Integer>();
+
+    private long numRevealed = 0; // number of safe cells revealed so far
+    private long numFlags = 0;    // number of cells flagged
+    private long numGenerated = 0; // number of times a chunk was made
+    private boolean lost = false;
+
+    // Cells waiting to have their neighbors opened during a reveal, packed by
+    // pack(). Kept between reveals so it only grows once.
+    private long[] queue = new long[64];
+
+    // Mines in a chunk and the ring of cells around it, used while making it.
+    private final byte[] halo = new byte[(CHUNK_SIZE + 2) * (CHUNK_SIZE + 2)];
+
+    /**
+     * Constructor: Initializes an endless board with the given seed and
+     * fraction of cells with mines, keeping up to MAX_CHUNKS chunks in memory.
+     */
+    public EndlessBoard(long seed, double density) {
+        this(seed, density, MAX_CHUNKS);
+    }
+
+    /**
+     * Constructor: Initializes an endless board. No chunks are made until
+     * their cells are looked at.
+     * @param seed the game seed.
+     * @param density the fraction of cells with mines, at least MIN_DENSITY
+     * and less than 1.
+     * @param maxChunks the most chunks to keep in memory.
+     */
+    public EndlessBoard(long seed, double density, int maxChunks) {
+        if (!(density >= MIN_DENSITY && density < 1))
+            throw new IllegalArgumentException("density must be at least " + MIN_DENSITY + " and less than 1: " + density);
+        if (maxChunks <= 0)
+            throw new IllegalArgumentException("must keep at least one chunk: " + maxChunks);
+        this.seed = seed;
+        this.density = density;
+        this.threshold = (long)(density * (1L << 53));
+        this.maxChunks = maxChunks;
+        this.chunks = new LinkedHashMap<Long, Chunk>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                if (size() <= EndlessBoard.this.maxChunks)
+                    return false;
+                drop(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the seed the board was made with.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the fraction of cells with mines.
+     */
+    public double getDensity() {
+        return density;
+    }
+
+    /**
+     * Get the packed state byte of the cell at the given row and column. See
+     * Board for what the bits mean.
+     */
+    public int getState(int row, int col) {
+        return chunk(row, col).cells[local(row, col)];
+    }
+
+    /**
+     * Returns true if a mine is hidden in the given cell.
+     */
+    public boolean isMine(int row, int col) {
+        return (getState(row, col) & Board.MINE) != 0;
+    }
+
+    /**
+     * Returns true if the given cell has been revealed.
+     */
+    public boolean isRevealed(int row, int col) {
+        return (getState(row, col) & Board.REVEALED) != 0;
+    }
+
+    /**
+     * Returns true if the given cell has been flagged.
+     */
+    public boolean isFlagged(int row, int col) {
+        return (getState(row, col) & Board.FLAGGED) != 0;
+    }
+
+    /**
+     * Returns the number of mines in cells neighboring the given cell.
+     */
+    public int getNeighborMineCount(int row, int col) {
+        return getState(row, col) & Board.COUNT_MASK;
+    }
+
+    /**
+     * Get the number of safe cells revealed so far.
+     */
+    public long getNumRevealed() {
+        return numRevealed;
+    }
+
+    /**
+     * Get the number of cells flagged.
+     */
+    public long getNumFlags() {
+        return numFlags;
+    }
+
+    /**
+     * Returns true if a mine has been revealed.
+     */
+    public boolean isLost() {
+        return lost;
+    }
+
+    /**
+     * Get the number of chunks in memory.
+     */
+    public int getNumChunks() {
+        return chunks.size();
+    }
+
+    /**
+     * Get the number of chunks that have been written to the spill file.
+     */
+    public int getNumSpilled() {
+        return slots.size();
+    }
+
+    /**
+     * Get the number of times a chunk has been made, counting chunks that were
+     * dropped and made again.
+     */
+    public long getNumGenerated() {
+        return numGenerated;
+    }
+
+    /**
+     * Reveal the given cell, following the same rules as Board.reveal(). A
+     * cascade through cells with no neighboring mines carries on into other
+     * chunks, making them as needed.
+     * @return the number of safe cells that were newly revealed.
+     */
+    public int reveal(int row, int col) {
+        Chunk chunk = chunk(row, col);
+        int j = local(row, col);
+        if ((chunk.cells[j] & (Board.REVEALED | Board.FLAGGED)) != 0)
+            return 0;
+        chunk.cells[j] |= Board.REVEALED;
+        chunk.dirty = true;
+        if ((chunk.cells[j] & Board.MINE) != 0) {
+            lost = true;
+            return 0;
+        }
+        int n = 1;
+        if ((chunk.cells[j] & Board.COUNT_MASK) == 0) {
+            // Only cells with no neighboring mines go in the queue, and the
+            // revealed bit marks cells already seen, so each is visited once.
+            // Each chunk is changed right after it is looked up, since looking
+            // up another one may drop it.
+            int head = 0, tail = 0;
+            queue[tail++] = pack(row, col);
+            while (head < tail) {
+                long p = queue[head++];
+                int r = (int)(p >> 32), c = (int)p;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        Chunk next = chunk(r + dr, c + dc);
+                        int k = local(r + dr, c + dc);
+                        if ((next.cells[k] & (Board.REVEALED | Board.FLAGGED)) != 0)
+                            continue;
+                        next.cells[k] |= Board.REVEALED;
+                        next.dirty = true;
+                        n++;
+                        if ((next.cells[k] & Board.COUNT_MASK) == 0) {
+                            if (tail == queue.length) {
+                                // Move what is still queued to the front
+                                // before making room for more.
+                                System.arraycopy(queue, head, queue, 0, tail - head);
+                                tail -= head;
+                                head = 0;
+                                if (tail == queue.length)
+                                    queue = java.util.Arrays.copyOf(queue, 2 * queue.length);
+                            }
+                            queue[tail++] = pack(r + dr, c + dc);
+                        }
+                    }
+                }
+            }
+        }
+        numRevealed += n;
+        return n;
+    }
+
+    /**
+     * Plant a flag on the given cell, or take it away if there is one already.
+     * Revealed cells can't be flagged.
+     * @return true if the cell changed.
+     */
+    public boolean toggleFlag(int row, int col) {
+        Chunk chunk = chunk(row, col);
+        int j = local(row, col);
+        if ((chunk.cells[j] & Board.REVEALED) != 0)
+            return false;
+        chunk.cells[j] ^= Board.FLAGGED;
+        chunk.dirty = true;
+        numFlags += (chunk.cells[j] & Board.FLAGGED) != 0 ? 1 : -1;
+        return true;
+    }
+
+    /**
+     * Chord on the given cell, following the same rules as Board.chord().
+     * @return the number of safe cells that were newly revealed.
+     */
+    public int chord(int row, int col) {
+        int state = getState(row, col);
+        int count = state & Board.COUNT_MASK;
+        if ((state & Board.REVEALED) == 0 || count == 0)
+            return 0;
+        int flags = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++)
+                flags += isFlagged(row + dr, col + dc) ? 1 : 0;
+        }
+        if (flags != count)
+            return 0;
+        int n = 0;
+        for (int dr = -1; dr <= 1 && !lost; dr++) {
+            for (int dc = -1; dc <= 1 && !lost; dc++)
+                n += reveal(row + dr, col + dc);
+        }
+        return n;
+    }
+
+    /**
+     * Delete the spill file. The board can't be used after this.
+     */
+    public void close() {
+        chunks.clear();
+        lastChunk = null;
+        slots.clear();
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException e) {
+                // Nothing more can be done, it gets deleted either way.
+            }
+            spillFile.delete();
+            spill = null;
+        }
+    }
+
+    // Get the chunk holding the given cell, making it or reading it back
+    // from the spill file if it isn't in memory.
+    private Chunk chunk(int row, int col) {
+        long key = key(row >> CHUNK_BITS, col >> CHUNK_BITS);
+        if (lastChunk != null && key == lastKey)
+            return lastChunk;
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            Integer slot = slots.get(key);
+            chunk = (slot != null) ? read(slot) : generate(row >> CHUNK_BITS, col >> CHUNK_BITS);
+            chunks.put(key, chunk);
+        }
+        lastChunk = chunk;
+        lastKey = key;
+        return chunk;
+    }
+
+    // Make the chunk at the given chunk row and column from the seed.
+    private Chunk generate(int chunkRow, int chunkCol) {
+        numGenerated++;
+        int row0 = chunkRow << CHUNK_BITS, col0 = chunkCol << CHUNK_BITS;
+        int w = CHUNK_SIZE + 2;
+        for (int r = 0; r < w; r++) {
+            for (int c = 0; c < w; c++)
+                halo[r * w + c] = (byte)(hasMine(row0 - 1 + r, col0 - 1 + c) ? 1 : 0);
+        }
+        Chunk chunk = new Chunk();
+        for (int r = 0; r < CHUNK_SIZE; r++) {
+            for (int c = 0; c < CHUNK_SIZE; c++) {
+                int h = (r + 1) * w + (c + 1);
+                int count = halo[h - w - 1] + halo[h - w] + halo[h - w + 1]
+                          + halo[h - 1] + halo[h + 1]
+                          + halo[h + w - 1] + halo[h + w] + halo[h + w + 1];
+                chunk.cells[(r << CHUNK_BITS) | c] = (byte)(count | (halo[h] != 0 ? Board.MINE : 0));
+            }
+        }
+        return chunk;
+    }
+
+    // Decide whether the given cell has a mine, by hashing the seed with the
+    // row and column. The 3x3 block around row 0, column 0 is kept clear.
+    private boolean hasMine(int row, int col) {
+        if (row >= -1 && row <= 1 && col >= -1 && col <= 1)
+            return false;
+        long h = seed + row * 0x9E3779B97F4A7C15L + col * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return (h >>> 11) < threshold;
+    }
+
+    // A chunk is being dropped from memory. Write it to the spill file first
+    // if it has changed since it was made or last read back.
+    private void drop(long key, Chunk chunk) {
+        if (chunk == lastChunk)
+            lastChunk = null;
+        if (!chunk.dirty)
+            return;
+        try {
+            if (spill == null) {
+                spillFile = File.createTempFile("endless", ".chunks");
+                spillFile.deleteOnExit();
+                spill = new RandomAccessFile(spillFile, "rw");
+            }
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                slot = slots.size();
+                slots.put(key, slot);
+            }
+            spill.seek((long)slot * CHUNK_CELLS);
+            spill.write(chunk.cells);
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't spill a chunk of the endless board", e);
+        }
+    }
+
+    // Read a chunk back from the given slot of the spill file.
+    private Chunk read(int slot) {
+        Chunk chunk = new Chunk();
+        try {
+            spill.seek((long)slot * CHUNK_CELLS);
+            spill.readFully(chunk.cells);
+        } catch (IOException e) {
+            throw new UncheckedIOException("can't read a chunk of the endless board back", e);
+        }
+        return chunk;
+    }
+
+    // The key for a chunk in the map, from its chunk row and column.
+    private static long key(int chunkRow, int chunkCol) {
+        return ((long)chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+
+    // The index of a cell within its chunk.
+    private static int local(int row, int col) {
+        return ((row & CHUNK_MASK) << CHUNK_BITS) | (col & CHUNK_MASK);
+    }
+
+    // A row and column packed in a long, for the reveal queue.
+    private static long pack(int row, int col) {
+        return ((long)row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A main() function, which walks a long way across an endless board
+     * revealing cells, to show that memory stays bounded while changed chunks
+     * go to the spill file.
+     */
+    public static void main(String args[]) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1234;
+        EndlessBoard board = new EndlessBoard(seed, 0.16, 64);
+        board.reveal(0, 0);
+        long start = System.nanoTime();
+        int steps = 0;
+        for (int col = 0; col < 100000; col += 3) {
+            if (!board.isMine(0, col))
+                board.reveal(0, col);
+            steps++;
+        }
+        long ms = (System.nanoTime() - start) / 1000000;
+        StdOut.printf("%d steps in %d ms, %d cells revealed\n", steps, ms, board.getNumRevealed());
+        StdOut.printf("%d chunks in memory, %d spilled, %d made\n",
+                board.getNumChunks(), board.getNumSpilled(), board.getNumGenerated());
+        boolean same = true;
+        for (int col = 0; col < 100000; col += 3)
+            same &= !board.isMine(0, col) == board.isRevealed(0, col);
+        StdOut.printf("Revealed cells read back from the spill file: %s\n", same ? "all there" : "MISSING");
+        board.close();
+    }
+
+}
@@ -0,0 +1,256 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  Endless minesweeper. This class implements the window for a game
+ *  on an EndlessBoard, which scrolls forever in every direction.
+ *
+ *  You can play an endless game using:
+ *    java Minesweeper 1234 endless
+ *----------------------------------------------------------------*/
+
+import GUI.*;
+
+/**
+ * An <i>EndlessGame</i> object shows an EndlessBoard in a window and lets the
+ * user play on it. It works like Game, with the same mouse buttons, but the
+ * board has no edges, so the game can't be won: the user explores as far as
+ * they like, scrolling with W, A, S, and D, until they reveal a mine. The
+ * game starts with the cell at row 0, column 0 revealed, since the cells
+ * around it never have mines.
+ */
+public class EndlessGame extends Window implements EventListener {
+
+    /**
+     * Number of cells tall shown on the screen.
+     */
+    public static final int VIEW_ROWS = Game.MAX_VIEW_ROWS;
+
+    /**
+     * Number of cells wide shown on the screen.
+     */
+    public static final int VIEW_COLS = Game.MAX_VIEW_COLS;
+
+    // Margin around the edges of the canvas, and the height of the status
+    // line under the grid.
+    private static final int MARGIN = 50;
+    private static final int STATUS_HEIGHT = 30;
+
+    private static final int GRID_WIDTH = VIEW_COLS * Cell.SIZE;
+    private static final int GRID_HEIGHT = VIEW_ROWS * Cell.SIZE;
+
+    // The board. The window is drawn on a different thread than the one
+    // handling the mouse and keyboard, so both lock the board while using it,
+    // and while using the fields below.
+    private EndlessBoard board;
+
+    private int viewRow; // board row shown at the top of the grid
+    private int viewCol; // board column shown at the left of the grid
+
+    // Number of times the whole view has needed to be redrawn, e.g. because
+    // it was scrolled. Cells are only redrawn when their state changes or
+    // when this goes up, like in Cell.
+    private int redrawCount = 0;
+
+    // Whether or not the game has been lost.
+    private boolean gameLost = false;
+
+    // Draws the window when something changes.
+    private RepaintScheduler frames;
+
+    // Whether a frame has been asked for and not painted yet, so other paints
+    // are known to come from the GUI itself, like in Game.
+    private volatile boolean framePosted = false;
+
+    // Pictures of each way a cell can look.
+    private static CellSprites sprites = CellSprites.forSize(Cell.SIZE);
+
+    /**
+     * Constructor: Initializes a new endless game and reveals the cell at row
+     * 0, column 0, which is in the middle of the screen.
+     * @param seed the game seed.
+     * @param density the fraction of cells with mines, see EndlessBoard.
+     */
+    public EndlessGame(long seed, double density) {
+        super("Endless Minesweeper!", 2*MARGIN + GRID_WIDTH, 2*MARGIN + GRID_HEIGHT + STATUS_HEIGHT);
+
+        board = new EndlessBoard(seed, density);
+        viewRow = -VIEW_ROWS / 2;
+        viewCol = -VIEW_COLS / 2;
+
+        setBackgroundColor(Canvas.DARK_GRAY);
+        Box border = new Box(MARGIN-1.5, MARGIN-1.5, GRID_WIDTH+3, GRID_HEIGHT+3);
+        border.setBackgroundColor(null);
+        border.setBorderColor(Canvas.BLACK);
+        add(border);
+        add(new View());
+
+        GameStats.gameStarted();
+        board.reveal(0, 0);
+
+        frames = new RepaintScheduler(() -> {
+            framePosted = true;
+            repaint();
+        }, Game.MAX_FRAMES_PER_SECOND);
+        frames.start();
+    }
+
+    /**
+     * Get the board holding the state of this game.
+     */
+    public EndlessBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Respond to a mouse click, the same way Game does: a left click reveals
+     * a cell, a right click plants or removes a flag, and a middle click
+     * chords.
+     * @param x the x coordinate where the user clicked, in pixels.
+     * @param y the y coordinate where the user clicked, in pixels.
+     * @param button either "left", "middle", or "right".
+     */
+    public void mouseClicked(double x, double y, String button) {
+        if (gameLost)
+            return;
+        if (x < MARGIN || y < MARGIN || x >= MARGIN + GRID_WIDTH || y >= MARGIN + GRID_HEIGHT)
+            return;
+        int code = Replay.buttonCode(button);
+        GameStats.click();
+
+        synchronized (board) {
+            int row = viewRow + (int)((y - MARGIN) / Cell.SIZE);
+            int col = viewCol + (int)((x - MARGIN) / Cell.SIZE);
+            EventLog.click(row, col, code);
+            if (code == Replay.RIGHT) {
+                board.toggleFlag(row, col);
+            } else {
+                int n = (code == Replay.MIDDLE) ? board.chord(row, col) : board.reveal(row, col);
+                GameStats.cellsRevealed(n);
+                EventLog.log(EventLog.DEBUG, EventLog.REVEAL, row, col, n);
+            }
+            if (board.isLost())
+                lose(row, col);
+        }
+        frames.request();
+    }
+
+    // A mine has been revealed: the game is over. The view shows every mine
+    // on the screen from now on. Called while holding the board's lock.
+    private void lose(int row, int col) {
+        gameLost = true;
+        redrawCount++; // every cell's picture may change
+        GameStats.gameLost();
+        EventLog.log(EventLog.INFO, EventLog.LOSS, row, col, 0);
+        StdOut.printf("You revealed %d cells before hitting a mine.\n", board.getNumRevealed());
+
+        Label lose = new Label(MARGIN + GRID_WIDTH / 2, MARGIN/2, "You have lost, try again!");
+        lose.setFont("SansSerif Bold", 24);
+        lose.setForegroundColor(Canvas.WHITE);
+        lose.setBackgroundColor(Canvas.RED);
+        lose.setBorderColor(Canvas.BLACK);
+        add(lose);
+    }
+
+    /**
+     * Respond to key presses: W, A, S, and D scroll half a screen, and Q
+     * quits.
+     * @param c the character that was typed.
+     */
+    public void keyTyped(char c) {
+        c = Character.toLowerCase(c);
+        if (c == 'q') {
+            frames.stop();
+            synchronized (board) {
+                board.close();
+            }
+            hide();
+            return;
+        }
+        synchronized (board) {
+            switch (c) {
+                case 'w':
+                    viewRow -= VIEW_ROWS / 2;
+                    break;
+                case 's':
+                    viewRow += VIEW_ROWS / 2;
+                    break;
+                case 'a':
+                    viewCol -= VIEW_COLS / 2;
+                    break;
+                case 'd':
+                    viewCol += VIEW_COLS / 2;
+                    break;
+                default:
+                    return; // anything else is ignored
+            }
+            redrawCount++; // every cell on the screen shows a different one
+        }
+        frames.request();
+    }
+
+    /**
+     * Paint the background for this window on the canvas. Nothing is needed,
+     * the view covers it. But if this paint wasn't asked for, e.g. because
+     * the window was uncovered, the view has to draw itself again in full.
+     * @param canvas the canvas on which to draw.
+     */
+    public void repaintWindowBackground(GUI.Canvas canvas) {
+        if (framePosted)
+            return;
+        synchronized (board) {
+            redrawCount++;
+        }
+    }
+
+    // Draws the visible cells of the board, and a status line under them.
+    // Only the cells whose state changed since the last frame are drawn.
+    private class View extends Widget {
+
+        // The state each cell on the screen showed the last time it was
+        // drawn, the status line drawn, and the redraw count at that time.
+        private int[] drawnState = new int[VIEW_ROWS * VIEW_COLS];
+        private String drawnStatus = null;
+        private int drawnRedraw = -1;
+
+        View() {
+            super(MARGIN, MARGIN, GRID_WIDTH, GRID_HEIGHT + STATUS_HEIGHT);
+        }
+
+        public void repaint(GUI.Canvas canvas) {
+            String status;
+            boolean all;
+            synchronized (board) {
+                all = (redrawCount != drawnRedraw);
+                drawnRedraw = redrawCount;
+                for (int i = 0; i < VIEW_ROWS; i++) {
+                    for (int j = 0; j < VIEW_COLS; j++) {
+                        int state = board.getState(viewRow + i, viewCol + j);
+                        if (gameLost && (state & Board.MINE) != 0 && (state & Board.FLAGGED) == 0)
+                            state |= Board.REVEALED;
+                        int k = i * VIEW_COLS + j;
+                        if (!all && state == drawnState[k])
+                            continue;
+                        drawnState[k] = state;
+                        int sprite = CellSprites.spriteFor(state, gameLost);
+                        canvas.picture(x + (j + 0.5) * Cell.SIZE, y + (i + 0.5) * Cell.SIZE, sprites.getFile(sprite));
+                    }
+                }
+                status = "Revealed " + board.getNumRevealed() + "   Flags " + board.getNumFlags()
+                    + "   Row " + viewRow + " Col " + viewCol
+                    + "   Chunks " + board.getNumChunks()
+                    + "   W/A/S/D - Scroll   Q - Quit";
+            }
+
+            framePosted = false;
+            if (!all && status.equals(drawnStatus))
+                return;
+            drawnStatus = status;
+            canvas.setPenColor(Canvas.DARK_GRAY);
+            canvas.filledRectangle(x, y + GRID_HEIGHT, width, STATUS_HEIGHT);
+            canvas.setFont(Canvas.DEFAULT_FONT);
+            canvas.setPenColor(Canvas.WHITE);
+            canvas.textLeft(x, y + GRID_HEIGHT + STATUS_HEIGHT / 2, status);
+        }
+    }
+
+}
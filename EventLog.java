@@ -0,0 +1,273 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  EventLog records what happens in a game to a log file, and to the
+ *  console, without making the game wait for either.
+ *----------------------------------------------------------------*/
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <i>EventLog</i> keeps a log of game events, like clicks, wins, and losses.
+ * Each event is a fixed-size record: a time, a level, a type, and up to four
+ * numbers, e.g. the row, column, and button of a click. Records go into a
+ * ring buffer that is allocated once, so logging an event never allocates,
+ * formats text, or touches a file. A background thread takes records out of
+ * the ring in batches, turns them into lines of text, and writes each batch
+ * to the log file, and to the console if echo is on, with one write.
+ *
+ * If the ring is full because the writer has fallen behind, new events are
+ * dropped and counted rather than waiting, and the writer notes how many
+ * were dropped. Events below the current level aren't recorded at all.
+ *
+ * Log lines look like:
+ *   12.345678 INFO  click row 3 col 7 button left
+ * where the number is seconds since the log started.
+ */
+public class EventLog {
+
+    /**
+     * Levels, from least to most important.
+     */
+    public static final int DEBUG = 0, INFO = 1, WARN = 2, ERROR = 3;
+
+    /**
+     * Event types.
+     */
+    public static final int CLICK = 0, REVEAL = 1, WIN = 2, LOSS = 3, BATCH = 4;
+
+    /**
+     * The file the log is written to.
+     */
+    public static final String FILENAME = "game.log";
+
+    /**
+     * Number of records the ring holds. This is a power of two.
+     */
+    public static final int CAPACITY = 1 << 13;
+
+    /**
+     * How long the writer sleeps when there is nothing to write, in
+     * milliseconds.
+     */
+    public static final int WRITE_INTERVAL_MS = 20;
+
+    private static final String[] LEVEL_NAMES = { "DEBUG", "INFO ", "WARN ", "ERROR" };
+
+    private static final int MASK = CAPACITY - 1;
+
+    // The ring, one record per index in parallel arrays. published[i] is the
+    // sequence number of the record in slot i once it has been completely
+    // written, so the writer knows it can be read.
+    private static final long[] times = new long[CAPACITY];
+    private static final int[] levels = new int[CAPACITY];
+    private static final int[] types = new int[CAPACITY];
+    private static final int[] as = new int[CAPACITY];
+    private static final int[] bs = new int[CAPACITY];
+    private static final int[] cs = new int[CAPACITY];
+    private static final int[] ds = new int[CAPACITY];
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+
+    // Sequence number of the next record to be added, and of the next one to
+    // be written.
+    private static final AtomicLong head = new AtomicLong();
+    private static volatile long tail;
+
+    private static final LongAdder dropped = new LongAdder();
+
+    private static volatile int minLevel = INFO;
+    private static volatile boolean echo = true;
+
+    private static final long startNanos = System.nanoTime();
+
+    // The log file, opened the first time there is something to write, and
+    // the text of the batch being written. Only used by drainQuietly().
+    private static Writer file;
+    private static boolean fileFailed;
+    private static final StringBuilder batch = new StringBuilder();
+    private static long droppedReported;
+
+    private static final Thread writer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++)
+            published.set(i, -1);
+        writer = new Thread(EventLog::writeLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        // Write whatever is left when the program ends.
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::drainQuietly, "event-log-flush"));
+    }
+
+    private EventLog() {
+    }
+
+    /**
+     * Set the least important level that is recorded. The default is INFO.
+     */
+    public static void setLevel(int level) {
+        minLevel = level;
+    }
+
+    /**
+     * Turn printing each event to the console on or off. The default is on.
+     * Either way, events are written to the log file.
+     */
+    public static void setEcho(boolean on) {
+        echo = on;
+    }
+
+    /**
+     * Get the number of events dropped because the ring was full.
+     */
+    public static long getNumDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Record a click on a cell, at level INFO.
+     * @param button one of Replay.LEFT, Replay.MIDDLE, or Replay.RIGHT.
+     */
+    public static void click(int row, int col, int button) {
+        log(INFO, CLICK, row, col, button);
+    }
+
+    /**
+     * Record a batch of moves applied at once, at level INFO, e.g. by
+     * Game.clickAll(). Cells are given by index, row * cols + col.
+     * @param moves the number of moves applied.
+     * @param first the cell of the first move.
+     * @param last the cell of the last move.
+     * @param cells the number of cells the moves revealed.
+     */
+    public static void batch(int moves, int first, int last, int cells) {
+        log(INFO, BATCH, moves, first, last, cells);
+    }
+
+    /**
+     * Record an event. This never waits: if the event's level is too low it
+     * is ignored, and if the ring is full it is dropped.
+     */
+    public static void log(int level, int type, int a, int b, int c) {
+        log(level, type, a, b, c, 0);
+    }
+
+    /**
+     * Record an event with four numbers, like log() with three.
+     */
+    public static void log(int level, int type, int a, int b, int c, int d) {
+        if (level < minLevel)
+            return;
+        long seq;
+        do {
+            seq = head.get();
+            if (seq - tail >= CAPACITY) {
+                dropped.increment();
+                return;
+            }
+        } while (!head.compareAndSet(seq, seq + 1));
+        int i = (int)seq & MASK;
+        times[i] = System.nanoTime();
+        levels[i] = level;
+        types[i] = type;
+        as[i] = a;
+        bs[i] = b;
+        cs[i] = c;
+        ds[i] = d;
+        published.set(i, seq);
+    }
+
+    // The writer thread: write what is in the ring, then sleep a while.
+    private static void writeLoop() {
+        while (true) {
+            if (!drainQuietly())
+                LockSupport.parkNanos(WRITE_INTERVAL_MS * 1000000L);
+        }
+    }
+
+    // Write every record that is ready. Returns true if there were any.
+    private static synchronized boolean drainQuietly() {
+        batch.setLength(0);
+        long t = tail;
+        while (published.get((int)t & MASK) == t) {
+            int i = (int)t & MASK;
+            format(times[i], levels[i], types[i], as[i], bs[i], cs[i], ds[i]);
+            t++;
+            tail = t; // the slot can be used again
+        }
+        long lost = dropped.sum() - droppedReported;
+        if (lost > 0) {
+            droppedReported += lost;
+            batch.append(LEVEL_NAMES[WARN]).append(" dropped ").append(lost)
+                .append(" events, the log writer fell behind\n");
+        }
+        if (batch.length() == 0)
+            return false;
+
+        String text = batch.toString();
+        if (echo) {
+            System.out.print(text);
+            System.out.flush();
+        }
+        if (file == null && !fileFailed) {
+            try {
+                file = new OutputStreamWriter(new FileOutputStream(FILENAME, true), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                fileFailed = true;
+                System.out.println("Can't open " + FILENAME + ": " + e.getMessage());
+            }
+        }
+        if (file != null) {
+            try {
+                file.write(text);
+                file.flush();
+            } catch (IOException e) {
+                System.out.println("Can't write " + FILENAME + ": " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    // Add the line for one record to the batch.
+    private static void format(long time, int level, int type, int a, int b, int c, int d) {
+        long micros = (time - startNanos) / 1000;
+        batch.append(micros / 1000000).append('.');
+        String frac = Long.toString(1000000 + micros % 1000000);
+        batch.append(frac, 1, frac.length()).append(' ');
+        batch.append(LEVEL_NAMES[Math.min(Math.max(level, DEBUG), ERROR)]).append(' ');
+        switch (type) {
+            case CLICK:
+                batch.append("click row ").append(a).append(" col ").append(b)
+                    .append(" button ").append(Replay.buttonName(c));
+                break;
+            case REVEAL:
+                batch.append("reveal row ").append(a).append(" col ").append(b)
+                    .append(" cells ").append(c);
+                break;
+            case WIN:
+                batch.append("win time ").append(a).append(" ms");
+                break;
+            case LOSS:
+                batch.append("loss row ").append(a).append(" col ").append(b);
+                break;
+            case BATCH:
+                batch.append("batch moves ").append(a).append(" first cell ").append(b)
+                    .append(" last cell ").append(c).append(" cells ").append(d);
+                break;
+            default:
+                batch.append("event ").append(type).append(' ').append(a)
+                    .append(' ').append(b).append(' ').append(c);
+                break;
+        }
+        batch.append('\n');
+    }
+
+}
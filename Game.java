@@ -8,27 +8,43 @@
  *----------------------------------------------------------------*/
 
 import GUI.*;
+import java.io.IOException;
 
 /**
  * A <i>Game</i> object manages all information about a minesweeper game as it
  * is being played and displayed on the screen. This includes information about
- * all of the cells (this is stored in a 2-D array of Cell objects), how many
- * flags have been planted, how many mines have been deployed, etc. Game extends
+ * all of the cells (this is stored in a Board object, and drawn by a 2-D array
+ * of Cell objects), how many flags have been planted, how many mines have been
+ * deployed, etc. Game extends
  * Window so it can be drawn on the screen. It also extends EventListener, so it
  * can respond to user interaction.
  */
 public class Game extends Window implements EventListener {
 
     /**
-     * Number of cells tall the game board will be.
+     * Number of cells tall the game board will be, unless another size is
+     * given to the constructor.
      */
     public static final int NUM_ROWS = 20;
 
     /**
-     * Number of cells wide the game board will be.
+     * Number of cells wide the game board will be, unless another size is
+     * given to the constructor.
      */
     public static final int NUM_COLS = 30;
 
+    /**
+     * Most cells tall that are shown on the screen at once. Taller boards
+     * scroll.
+     */
+    public static final int MAX_VIEW_ROWS = 25;
+
+    /**
+     * Most cells wide that are shown on the screen at once. Wider boards
+     * scroll.
+     */
+    public static final int MAX_VIEW_COLS = 45;
+
     // Example game screen layout:
     // +---------------------------------------------------------+
     // |      M A R G I N = 50                                   |
@@ -38,9 +54,9 @@ public class Game extends Window implements EventListener {
     // | G  |                Grid of Cells                  | G  |
     // | I  |                                               | I  |
     // | N  |                                               | N  |
-    // | =  |       600 = NUM_COLS * Cell.SIZE wide         | =  |
+    // | =  |       600 = viewCols * Cell.SIZE wide         | =  |
     // | 50 |                      by                       | 50 |
-    // |    |       400 = NUM_ROWS * Cell.SIZE tall         |    |
+    // |    |       400 = viewRows * Cell.SIZE tall         |    |
     // |    |                                               |    |
     // |    |                                               |    |
     // |    |                                               |    |
@@ -52,34 +68,10 @@ public class Game extends Window implements EventListener {
     // |    + - - - - - - - + E + - - - + E + - - - - - - - +    |
     // |     M A R G I N = 50                                    |
     // +-- ------------------------------------------------------+
-
-    /**
-     * Width of the game window, in pixels.
-     * Equal to 2*MARGIN + GRID_WIDTH
-     * or 2*MARGIN + 2*SPACE + StatusBox.WIDTH, Timer.WIDTH, HelpBox.WIDTH,
-     * whichever is larger.
-     */
-    public static final int WIDTH = 700;
-
-    /**
-     * Height of the game window, in pixels.
-     * Equal to 2*MARGIN + SPACE
-     *     + GRID_HEIGHT
-     *     + max(StatusBox.Height, Timer.HEIGHT, HelpBox.HEIGHT)
-     */
-    public static final int HEIGHT = 600; 
-
-    /**
-     * Width of the grid part of the window, in pixels.
-     * Equal to NUM_COLS * Cell.SIZE.
-     */
-    public static final int GRID_WIDTH = NUM_COLS * Cell.SIZE;
-
-    /**
-     * Height of the grid part of the window, in pixels.
-     * Equal to NUM_ROWS * Cell.SIZE.
-     */
-    public static final int GRID_HEIGHT = NUM_ROWS * Cell.SIZE;
+    //
+    // The grid shows viewRows by viewCols cells, which is the whole board
+    // unless the board is bigger than MAX_VIEW_ROWS by MAX_VIEW_COLS. In that
+    // case the grid is a window onto the board that can be scrolled.
 
     /**
      * Margin around the edges of the canvas.
@@ -91,11 +83,40 @@ public class Game extends Window implements EventListener {
      */
     private static final int SPACE = 25;
 
-    // A 2-D array of Cell objects to keep track of the board state.
-    private Cell[][] cells = new Cell[NUM_ROWS][NUM_COLS];
+    // The board state. This has no display, the cells below draw it.
+    private Board board;
+
+    // A 2-D array of Cell objects to draw the visible part of the board.
+    private Cell[][] cells;
+
+    private int viewRows; // number of cells tall shown on the screen
+    private int viewCols; // number of cells wide shown on the screen
+    private int viewRow;  // board row shown at the top of the grid
+    private int viewCol;  // board column shown at the left of the grid
+
+    // Width and height of the grid part of the window, in pixels. Equal to
+    // viewCols * Cell.SIZE and viewRows * Cell.SIZE.
+    private int gridWidth, gridHeight;
+
+    // Number of times the whole window has needed to be redrawn. Cells only
+    // redraw themselves when their state changes or when this goes up.
+    private int redrawCount = 0;
+
+    // For no-guess games, the mines are deployed when the first cell is
+    // clicked, so the board can be made solvable from there. Until then this
+    // is the number of mines waiting to be deployed, otherwise it is -1.
+    private int pendingMines = -1;
+    private long noGuessSeed;
+
+    // The moves made so far, so the game can be played back, or null if the
+    // game can't be made again from its seed, e.g. a resumed game.
+    private Replay replay;
+
+    // The solver used for hints, made the first time a hint is asked for.
+    private Solver solver;
 
-    private int numMines = 0;    // number of mines deployed
-    private int numRevealed = 0; // number of cells revealed so far
+    // Index of the cell currently suggested as a hint, or -1 if none.
+    private int hintCell = -1;
 
     // Whether or not the game has been won.
     private boolean gameWon = false;
@@ -109,6 +130,9 @@ public class Game extends Window implements EventListener {
     // The difficulty level of the game, used for tracking top scores.
     private String difficulty;
 
+    // The seed the game was made with, kept with the score in the history.
+    private long seed;
+
     // The status box that appears in the top left.
     private StatusBox status;
 
@@ -119,145 +143,394 @@ public class Game extends Window implements EventListener {
     private HelpBox help;
 
     /**
-     * Constructor: Initializes a new game, but does not deploy any mines, plant
-     * any flags, etc. The difficulty is either "easy", "medium", or "hard", and
-     * will be used to load the proper top scores file. Name is used as the
-     * user's name.
+     * Most frames drawn in one second. The window is only drawn when something
+     * changes, and changes closer together than this share a frame.
+     */
+    public static final int MAX_FRAMES_PER_SECOND = 60;
+
+    // Draws the window when something changes.
+    private RepaintScheduler frames;
+
+    // System.nanoTime() of the input shown by the frame being painted, or -1
+    // if it wasn't asked for by an input, e.g. a timer tick. Set when the
+    // frame is asked for, and used once it has been painted.
+    private volatile long frameInputNanos = -1;
+
+    // The flight recorder event for the frame being painted, or null. Only
+    // used while painting.
+    private GameEvents.Frame frameEvent;
+
+    // Whether a frame has been asked for by drawFrame() and not finished
+    // painting yet. Any other paint was started by the GUI itself, e.g.
+    // because the window was resized or uncovered.
+    private volatile boolean framePosted = false;
+
+    // The top scores, made by getTopScores() the first time a game is won.
+    private static TopScores topScores;
+
+    /**
+     * Constructor: Initializes a new game of the usual size, NUM_ROWS by
+     * NUM_COLS, but does not deploy any mines, plant any flags, etc. The
+     * difficulty is either "easy", "medium", or "hard", and will be used to
+     * load the proper top scores file. Name is used as the user's name.
      */
     public Game(String name, String difficulty) {
-        super("Minesweeper!", WIDTH, HEIGHT);
+        this(name, difficulty, NUM_ROWS, NUM_COLS);
+    }
+
+    /**
+     * Constructor: Initializes a new game with a board of the given size, but
+     * does not deploy any mines, plant any flags, etc. Boards bigger than
+     * MAX_VIEW_ROWS by MAX_VIEW_COLS are shown a piece at a time.
+     * @param name the user's name.
+     * @param difficulty the difficulty level, used for tracking top scores.
+     * @param rows the number of cells tall the board will be.
+     * @param cols the number of cells wide the board will be.
+     */
+    public Game(String name, String difficulty, int rows, int cols) {
+        this(name, difficulty, new Board(rows, cols));
+    }
+
+    /**
+     * Constructor: Initializes a new game showing the given board, as it is,
+     * e.g. a board loaded from a saved game.
+     * @param name the user's name.
+     * @param difficulty the difficulty level, used for tracking top scores.
+     * @param board the board to play on.
+     */
+    public Game(String name, String difficulty, Board board) {
+        super("Minesweeper!", windowWidth(board.getNumCols()), windowHeight(board.getNumRows()));
 
         this.username = name;
         this.difficulty = difficulty;
 
+        this.board = board;
+        int rows = board.getNumRows();
+        int cols = board.getNumCols();
+        viewRows = Math.min(rows, MAX_VIEW_ROWS);
+        viewCols = Math.min(cols, MAX_VIEW_COLS);
+        gridWidth = viewCols * Cell.SIZE;
+        gridHeight = viewRows * Cell.SIZE;
+        int width = windowWidth(cols);
+        int height = windowHeight(rows);
+
         // Create the background
         setBackgroundColor(Canvas.DARK_GRAY);
 
+        // Widgets are painted in the order they are added, so this one marks
+        // the start of painting each frame, and another added last marks the
+        // end.
+        add(new FrameMark(false));
+
         // Create a border around the grid
-        Box border = new Box(MARGIN-1.5, MARGIN-1.5, GRID_WIDTH+3, GRID_HEIGHT+3);
+        Box border = new Box(MARGIN-1.5, MARGIN-1.5, gridWidth+3, gridHeight+3);
         border.setBackgroundColor(null);
         border.setBorderColor(Canvas.BLACK);
         add(border);
 
         // Create the info boxes
-        help = new HelpBox(
-                WIDTH - MARGIN - HelpBox.WIDTH,
-                HEIGHT - MARGIN - HelpBox.HEIGHT);
+        help = new HelpBox(this,
+                width - MARGIN - HelpBox.WIDTH,
+                height - MARGIN - HelpBox.HEIGHT);
         add(help);
     // Create timer, status box, and cells while adding to display
-        timer = new Timer(MARGIN + StatusBox.WIDTH + SPACE, HEIGHT - MARGIN - Timer.HEIGHT); // 275, 475 WIDTH / 2 - MARGIN, HEIGHT - MARGIN - Timer.HEIGHT
+        timer = new Timer(MARGIN + StatusBox.WIDTH + SPACE, height - MARGIN - Timer.HEIGHT); // 275, 475 WIDTH / 2 - MARGIN, HEIGHT - MARGIN - Timer.HEIGHT
         add(timer);
-        status = new StatusBox(this, MARGIN, HEIGHT - MARGIN - StatusBox.HEIGHT); // WIDTH / 4 - MARGIN, HEIGHT - MARGIN - StatusBox.HEIGHT
+        status = new StatusBox(this, MARGIN, height - MARGIN - StatusBox.HEIGHT); // WIDTH / 4 - MARGIN, HEIGHT - MARGIN - StatusBox.HEIGHT
         add(status);
 
-        for (int i = 0; i < NUM_ROWS; i++) {
-            for (int j = 0; j < NUM_COLS; j++) {
-                cells[i][j] = new Cell(j * Cell.SIZE + MARGIN, i * Cell.SIZE + MARGIN);
+        cells = new Cell[viewRows][viewCols];
+        for (int i = 0; i < viewRows; i++) {
+            for (int j = 0; j < viewCols; j++) {
+                cells[i][j] = new Cell(this, i, j, j * Cell.SIZE + MARGIN, i * Cell.SIZE + MARGIN);
                 add(cells[i][j]);
             }
         }
+        add(new FrameMark(true));
+
+        // Draw the window when the user does something, and when the timer
+        // display changes. repaint() can be called from any thread, and
+        // several calls before the window is drawn only draw it once.
+        frames = new RepaintScheduler(this::drawFrame, MAX_FRAMES_PER_SECOND);
+        frames.setTicker(timer::getNanosUntilNextSecond);
+        frames.start();
+    }
+
+    // Ask the GUI to paint the window. Called by the RepaintScheduler.
+    // repaint() only posts a request, so the frame is counted and timed by
+    // the FrameMark widgets while it is really being painted.
+    private void drawFrame() {
+        long latency = frames.getFrameLatencyNanos();
+        frameInputNanos = latency < 0 ? -1 : System.nanoTime() - latency;
+        framePosted = true;
+        repaint();
+    }
+
+    // An invisible widget that marks the start or the end of painting a
+    // frame. At the end, the frame is counted in GameStats, with the time
+    // from the input it shows, and in the flight recorder.
+    private class FrameMark extends Widget {
+        private final boolean end;
+
+        FrameMark(boolean end) {
+            super(0, 0, 1, 1);
+            this.end = end;
+        }
+
+        public void repaint(GUI.Canvas canvas) {
+            if (!end) {
+                frameEvent = GameEvents.FRAME.isEnabled() ? new GameEvents.Frame() : null;
+                if (frameEvent != null)
+                    frameEvent.begin();
+                return;
+            }
+            long input = frameInputNanos;
+            frameInputNanos = -1;
+            framePosted = false;
+            long latency = input < 0 ? -1 : System.nanoTime() - input;
+            GameStats.frame(latency);
+            if (frameEvent != null) {
+                frameEvent.latency = latency;
+                frameEvent.commit();
+                frameEvent = null;
+            }
+        }
+    }
+
+    /**
+     * Ask for the window to be drawn again soon, because something on it has
+     * changed. This can be called from any thread.
+     */
+    public void requestRepaint() {
+        frames.request();
+    }
+
+    // Width of the game window, in pixels, for a board with the given number
+    // of columns. Equal to 2*MARGIN + grid width or 2*MARGIN + 2*SPACE +
+    // StatusBox.WIDTH + Timer.WIDTH + HelpBox.WIDTH, whichever is larger.
+    private static int windowWidth(int cols) {
+        int grid = Math.min(cols, MAX_VIEW_COLS) * Cell.SIZE;
+        int boxes = 2*SPACE + StatusBox.WIDTH + Timer.WIDTH + HelpBox.WIDTH;
+        return 2*MARGIN + Math.max(grid, boxes);
+    }
+
+    // Height of the game window, in pixels, for a board with the given number
+    // of rows. Equal to 2*MARGIN + SPACE + grid height
+    // + max(StatusBox.Height, Timer.HEIGHT, HelpBox.HEIGHT).
+    private static int windowHeight(int rows) {
+        int grid = Math.min(rows, MAX_VIEW_ROWS) * Cell.SIZE;
+        int boxes = Math.max(StatusBox.HEIGHT, Math.max(Timer.HEIGHT, HelpBox.HEIGHT));
+        return 2*MARGIN + SPACE + grid + boxes;
+    }
+
+    /**
+     * Get the index of the cell currently suggested as a hint, or -1 if there
+     * is no hint showing.
+     */
+    public int getHintCell() {
+        return hintCell;
+    }
+
+    /**
+     * Find a hidden cell that can be proven safe from the numbers showing, and
+     * suggest it as a hint, scrolling it into view if needed.
+     * @return the index of the cell, or -1 if there is no such cell and the
+     * user will have to guess.
+     */
+    public int hint() {
+        if (solver == null)
+            solver = new Solver(board);
+        hintCell = -1;
+        if (!gameWon && !gameLost && solver.solve())
+            hintCell = solver.getSafe(0);
+        if (hintCell >= 0) {
+            int row = hintCell / board.getNumCols();
+            int col = hintCell % board.getNumCols();
+            if (row < viewRow || row >= viewRow + viewRows || col < viewCol || col >= viewCol + viewCols)
+                scrollTo(row - viewRows / 2, col - viewCols / 2);
+            StdOut.printf("Hint: row %d column %d is safe.\n", row, col);
+        } else {
+            StdOut.printf("Hint: there is no safe cell, you'll have to guess.\n");
+        }
+        return hintCell;
+    }
+
+    /**
+     * Pause the game, or carry on if it is paused. While the game is paused
+     * the timer stops and mouse clicks are ignored. Only a game whose
+     * timer is running can be paused.
+     */
+    public void togglePause() {
+        if (timer.isPaused()) {
+            timer.resume();
+            StdOut.printf("Carrying on.\n");
+        } else if (timer.isCounting()) {
+            timer.pause();
+            StdOut.printf("Paused, press P to carry on.\n");
+        }
+    }
+
+    /**
+     * Get the number of times the whole window has needed to be redrawn.
+     * Widgets that skip drawing when they haven't changed should draw again
+     * whenever this number changes.
+     */
+    public int getRedrawCount() {
+        return redrawCount;
+    }
+
+    /**
+     * Make every cell and box draw itself again on the next frame, instead of
+     * just the ones that have changed.
+     */
+    public void redrawAll() {
+        redrawCount++;
+    }
+
+    /**
+     * Scroll the visible part of the board so the given board row and column
+     * are at the top left of the grid, as far as the edges of the board allow.
+     */
+    public void scrollTo(int row, int col) {
+        viewRow = Math.max(0, Math.min(row, board.getNumRows() - viewRows));
+        viewCol = Math.max(0, Math.min(col, board.getNumCols() - viewCols));
+        for (int i = 0; i < viewRows; i++) {
+            for (int j = 0; j < viewCols; j++) {
+                cells[i][j].setPosition(viewRow + i, viewCol + j);
+            }
+        }
+    }
+
+    /**
+     * Get the board holding the state of this game.
+     */
+    public Board getBoard() {
+        return board;
     }
 
     /**
      * Get the number of mines that are deployed.
      */
     public int getNumMinesDeployed() {
-        return numMines;
+        if (pendingMines >= 0)
+            return pendingMines;
+        return board.getNumMinesDeployed();
+    }
+
+    /**
+     * Get the number of mines left to be flagged: the number deployed minus
+     * the number of flags planted. This is negative if there are more flags
+     * than mines.
+     */
+    public int getNumMinesRemaining() {
+        return getNumMinesDeployed() - board.getNumFlags();
     }
 
     /**
      * Get the number of hidden cells remaining to be revealed.
      */
     public int getNumCellsRemaining() {
-        return NUM_ROWS * NUM_COLS - numRevealed;
+        return board.getNumCellsRemaining();
+    }
+
+    /**
+     * Set the seed the game was made with. This is only kept with the score,
+     * so the same game can be looked up and played again later.
+     * @param seed the game seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Get the seed the game was made with.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the name of the user playing the game.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Get the difficulty level of the game.
+     */
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Get the number of mines waiting to be deployed when the first cell of a
+     * no-guess game is clicked, or -1 if the mines are already deployed.
+     */
+    public int getPendingMines() {
+        return pendingMines;
+    }
+
+    /**
+     * Get the time on the game timer, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return timer.getElapsedMillis();
+    }
+
+    /**
+     * Set the time on the game timer, e.g. when a saved game is resumed. The
+     * timer carries on from there when the next cell is clicked.
+     * @param millis the time in milliseconds.
+     */
+    public void setElapsedMillis(long millis) {
+        timer.setElapsedNanos(millis * 1000000L);
+    }
+
+    /**
+     * Returns true if the game has been won or lost.
+     */
+    public boolean isOver() {
+        return gameWon || gameLost;
     }
 
     /**
      * Deploy the given number of mines. This gets called once during game
      * setup. The game doesn't actually begin officially until the user clicks
-     * a cell, so the timer should not start yet.
+     * a cell, so the timer should not start yet. The mines are picked with
+     * StdRandom, which should be seeded with the game's seed just before, so
+     * a Replay can deploy the same mines again.
      */
     public void deployMines(int mines) {
-        while (numMines < mines) {
-            int r = StdRandom.uniform(0,NUM_ROWS);
-            int c = StdRandom.uniform(0,NUM_COLS);
-            // deploy all mines
-            if (!cells[r][c].isMine()) {
-                cells[r][c].makeMine();
-                numMines++;
-                // neighbor mine count
-                if (r == 0 && c == NUM_COLS-1) {
-                    cells[r+1][c].incrementNeighborMineCount();
-                    cells[r][c-1].incrementNeighborMineCount();
-                    cells[r+1][c-1].incrementNeighborMineCount();
-                } // end of top right corner check
-
-                if (r==0 && c==0) {
-                    cells[r+1][c].incrementNeighborMineCount();
-                    cells[r][c+1].incrementNeighborMineCount();
-                    cells[r+1][c+1].incrementNeighborMineCount();
-                } // end of top left corner check
-
-                if (r==NUM_ROWS-1 && c==NUM_COLS-1) {
-                    cells[r][c-1].incrementNeighborMineCount();
-                    cells[r-1][c].incrementNeighborMineCount();
-                    cells[r-1][c-1].incrementNeighborMineCount();
-                } // end of bottom right corner check
-
-                if (r==NUM_ROWS-1 && c==0) {
-                    cells[r-1][c].incrementNeighborMineCount();
-                    cells[r][c+1].incrementNeighborMineCount();
-                    cells[r-1][c+1].incrementNeighborMineCount();
-                } // end of bottom left corner check
-
-                if (r==0 && c != 0 && c != NUM_COLS-1) {
-                    cells[r][c-1].incrementNeighborMineCount();
-                    cells[r+1][c].incrementNeighborMineCount();
-                    cells[r][c+1].incrementNeighborMineCount();
-                    cells[r+1][c+1].incrementNeighborMineCount();
-                    cells[r+1][c-1].incrementNeighborMineCount();
-                } // end of top row check excluding corners
-
-                if (r==NUM_ROWS-1 && c != 0 && c != NUM_COLS-1) {
-                    cells[r-1][c].incrementNeighborMineCount();
-                    cells[r][c-1].incrementNeighborMineCount();
-                    cells[r][c+1].incrementNeighborMineCount();
-                    cells[r-1][c-1].incrementNeighborMineCount();
-                    cells[r-1][c+1].incrementNeighborMineCount();
-                } // end of bottom row check excluding corners
-
-                if (r != 0 && r != NUM_ROWS-1 && c==0) {
-                    cells[r+1][c].incrementNeighborMineCount();
-                    cells[r-1][c].incrementNeighborMineCount();
-                    cells[r][c+1].incrementNeighborMineCount();
-                    cells[r+1][c+1].incrementNeighborMineCount();
-                    cells[r-1][c+1].incrementNeighborMineCount();
-
-                } // end of left side check
-
-                if (r != 0 && r != NUM_ROWS-1 && c == NUM_COLS-1) {
-                    cells[r+1][c].incrementNeighborMineCount();
-                    cells[r-1][c].incrementNeighborMineCount();
-                    cells[r][c-1].incrementNeighborMineCount();
-                    cells[r+1][c-1].incrementNeighborMineCount();
-                    cells[r-1][c-1].incrementNeighborMineCount();
-                } // end of right side check
-
-                if (r != 0 && r != NUM_ROWS-1 && c != 0 && c != NUM_COLS-1) {
-                    cells[r+1][c].incrementNeighborMineCount();
-                    cells[r-1][c].incrementNeighborMineCount();
-                    cells[r][c+1].incrementNeighborMineCount();
-                    cells[r][c-1].incrementNeighborMineCount();
-                    cells[r-1][c-1].incrementNeighborMineCount();
-                    cells[r-1][c+1].incrementNeighborMineCount();
-                    cells[r+1][c-1].incrementNeighborMineCount();
-                    cells[r+1][c+1].incrementNeighborMineCount();
-                } // middle section of grid
-            } // if not a mine check
-
-        } // mine counter for
-    } // end of deploy mines
-    
+        GameEvents.DeployMines event = GameEvents.DEPLOY_MINES.isEnabled() ? new GameEvents.DeployMines() : null;
+        if (event != null)
+            event.begin();
+        board.deployMines(mines);
+        if (event != null) {
+            event.rows = board.getNumRows();
+            event.cols = board.getNumCols();
+            event.mines = board.getNumMinesDeployed();
+            event.commit();
+        }
+        GameStats.gameStarted();
+        replay = new Replay(seed, board.getNumRows(), board.getNumCols(), mines, false, difficulty, username);
+    }
+
+    /**
+     * Deploy the given number of mines so that the board can be solved without
+     * guessing. The mines are actually deployed when the user clicks the first
+     * cell, since the board has to be solvable starting from that cell. See
+     * NoGuessGenerator for how this is done.
+     * @param mines the number of mines to deploy.
+     * @param seed the game seed, so the same seed and first click always give
+     * the same board.
+     */
+    public void deployMinesNoGuess(int mines, long seed) {
+        pendingMines = mines;
+        noGuessSeed = seed;
+        GameStats.gameStarted();
+        replay = new Replay(seed, board.getNumRows(), board.getNumCols(), mines, true, difficulty, username);
+    }
 
     /**
      * Respond to a mouse click. This function will be called each time the user
@@ -274,58 +547,297 @@ public class Game extends Window implements EventListener {
     public void mouseClicked(double x, double y, String button) {
         // User clicked the mouse, see what they want to do.
 
-        // If game is over, then ignore the mouse click.
-        if (gameWon || gameLost)
-            return;
-
-        // If the user middle-clicked, ignore it.
-        if (!button.equals("left") && !button.equals("right"))
+        // If game is over or paused, then ignore the mouse click.
+        if (gameWon || gameLost || timer.isPaused())
             return;
 
         // If the user clicked outside of the game grid, ignore it.
         if (x < MARGIN || y < MARGIN
-                || x >= MARGIN + GRID_WIDTH || y >= MARGIN + GRID_HEIGHT) {
+                || x >= MARGIN + gridWidth || y >= MARGIN + gridHeight) {
             return;
                 }
 
-        // Calculate which cell the user clicked.
-        int row = (int)((y - MARGIN) / Cell.SIZE);
-        int col = (int)((x - MARGIN) / Cell.SIZE);
+        // Calculate which cell the user clicked, counting from the part of the
+        // board that is scrolled into view.
+        int row = viewRow + (int)((y - MARGIN) / Cell.SIZE);
+        int col = viewCol + (int)((x - MARGIN) / Cell.SIZE);
+
+        EventLog.click(row, col, Replay.buttonCode(button));
+        if (replay != null)
+            replay.record(row, col, button);
+        click(row, col, button);
+    }
+
+    /**
+     * Respond to a click on a cell, given by its row and column on the board
+     * rather than by where it is on the screen. mouseClicked() calls this, and
+     * so does Replay when playing a game back. A left click reveals the cell,
+     * a right click plants or removes a flag, and a middle click chords: if
+     * the cell's number matches its flagged neighbors, the rest of its
+     * neighbors are revealed.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param button either "left", "middle", or "right".
+     */
+    public void click(int row, int col, String button) {
+        if (gameWon || gameLost)
+            return;
+        if (!board.inBounds(row, col))
+            return;
+        hintCell = -1;
+        GameStats.click();
+
+        int code = Replay.buttonCode(button);
+        if (code == Replay.RIGHT) {
+            board.toggleFlag(row, col);
+            requestRepaint();
+            return;
+        }
+        // Nothing is revealed before the first click, so there is nothing
+        // to chord on yet.
+        if (code == Replay.MIDDLE && pendingMines >= 0)
+            return;
 
-        StdOut.printf("You clicked row %d column %d with button %s.\n", row, col, button);
-        if (!cells[row][col].isMine && !cells[row][col].isRevealed) {
+        // For no-guess games, this is the time to deploy the mines, unless
+        // the cell is flagged, since then nothing is revealed yet.
+        if (pendingMines >= 0) {
+            if (board.isFlagged(row, col))
+                return;
+            deployPendingMines(row, col);
+        }
+
+        // A reveal opens the whole region around a cell with no neighboring
+        // mines in one go.
+        GameEvents.Reveal event = GameEvents.REVEAL.isEnabled() ? new GameEvents.Reveal() : null;
+        if (event != null)
+            event.begin();
+        int n = (code == Replay.MIDDLE) ? board.chord(row, col) : board.reveal(row, col);
+        if (n > 0)
             timer.startCounting();
-            cells[row][col].reveal();
-            numRevealed++;
-
-            if (numRevealed == NUM_ROWS * NUM_COLS - numMines) { 
-                timer.stopCounting();
-                this.gameWon = true;
-                Label win = new Label(MARGIN + NUM_COLS * Cell.SIZE / 2, MARGIN/2, "You win! Congrats!");
-                win.setFont("SansSerif Bold", 24);
-                win.setForegroundColor(Canvas.WHITE);
-                win.setBackgroundColor(Canvas.GREEN);
-                win.setBorderColor(Canvas.BLACK);
-                add(win);
+        GameStats.cellsRevealed(n);
+        EventLog.log(EventLog.DEBUG, EventLog.REVEAL, row, col, n);
+        if (event != null) {
+            event.row = row;
+            event.col = col;
+            event.cells = n;
+            event.commit();
+        }
+        if (board.isWon())
+            win();
+        else if (board.isLost())
+            lose(row, col);
+
+        requestRepaint();
+    }
+
+    /**
+     * Apply a batch of moves, given by cell rather than by where they are on
+     * the screen, e.g. from a bot or a test. The moves are applied in order
+     * following the same rules as click(), stopping at the first mine
+     * revealed, but the game's counters, timer, and win or loss are only
+     * updated once at the end, and the window is drawn once. Each move that
+     * was applied is added to the replay, like a click, and the batch is
+     * logged as one event.
+     * @param moves three ints per move: the row, the column, and the button,
+     * one of Replay.LEFT, Replay.MIDDLE, or Replay.RIGHT.
+     * @param count the number of moves.
+     * @return the number of moves applied, which is less than count if the
+     * game ended first.
+     */
+    public int clickAll(int[] moves, int count) {
+        if (gameWon || gameLost)
+            return 0;
+        hintCell = -1;
+        int k = 0;
+
+        // For no-guess games, the first move that reveals a cell deploys the
+        // mines, like in click(). Flags planted before then are kept, and a
+        // left click on a flagged cell reveals nothing, so it doesn't count.
+        // Moves are applied up to each left click so its flag is up to date.
+        if (pendingMines >= 0) {
+            int applied = 0;
+            for (; k < count; k++) {
+                int row = moves[3 * k], col = moves[3 * k + 1];
+                if (moves[3 * k + 2] != Replay.LEFT || !board.inBounds(row, col))
+                    continue;
+                board.applyMoves(moves, applied, k);
+                applied = k;
+                if (!board.isFlagged(row, col))
+                    break;
+            }
+            board.applyMoves(moves, applied, k);
+            if (k == count) {
+                recordMoves(moves, 0, count, 0);
+                requestRepaint();
+                return count;
             }
+            deployPendingMines(moves[3 * k], moves[3 * k + 1]);
         }
-        if (cells[row][col].isMine()) {
-            this.gameLost=true;
-            timer.stopCounting();
-            for (int i = 0; i < NUM_COLS; i++) {
-                for (int j = 0; j < NUM_ROWS; j++) {
-                    cells[j][i].showMine();
-                }
+
+        GameEvents.Reveal event = GameEvents.REVEAL.isEnabled() ? new GameEvents.Reveal() : null;
+        if (event != null)
+            event.begin();
+        int start = board.getNumRevealed();
+        int end = board.applyMoves(moves, k, count);
+        int n = board.getNumRevealed() - start;
+        recordMoves(moves, 0, end, n);
+        GameStats.cellsRevealed(n);
+        if (end > 0) {
+            int row = moves[3 * (end - 1)], col = moves[3 * (end - 1) + 1];
+            EventLog.log(EventLog.DEBUG, EventLog.REVEAL, row, col, n);
+            if (event != null) {
+                event.row = row;
+                event.col = col;
+                event.cells = n;
+                event.commit();
             }
+            if (n > 0)
+                timer.startCounting();
+            if (board.isWon())
+                win();
+            else if (board.isLost())
+                lose(row, col);
+        }
+
+        requestRepaint();
+        return end;
+    }
+
+    // Add the moves numbered from one up to another to the replay, as if
+    // each had been clicked just now, and count and log them as one batch
+    // that revealed the given number of cells. Moves off the board did
+    // nothing, so they are left out.
+    private void recordMoves(int[] moves, int from, int to, int revealed) {
+        int n = 0, first = -1, last = -1;
+        for (int k = from; k < to; k++) {
+            int row = moves[3 * k], col = moves[3 * k + 1], button = moves[3 * k + 2];
+            if (!board.inBounds(row, col))
+                continue;
+            last = board.index(row, col);
+            if (n++ == 0)
+                first = last;
+            if (replay != null)
+                replay.record(row, col, Replay.buttonName(button));
+        }
+        GameStats.clicks(n);
+        if (n > 0)
+            EventLog.batch(n, first, last, revealed);
+    }
+
+    // Deploy the mines of a no-guess game, now that the first cell to be
+    // revealed is known.
+    private void deployPendingMines(int row, int col) {
+        int mines = pendingMines;
+        pendingMines = -1;
+        GameEvents.DeployMines event = GameEvents.DEPLOY_MINES.isEnabled() ? new GameEvents.DeployMines() : null;
+        if (event != null)
+            event.begin();
+        if (NoGuessGenerator.generate(board, mines, noGuessSeed, row, col) < 0) {
+            StdOut.printf("No board without guessing was found, using a random one.\n");
+            MinePlacer.deploy(board, mines, new java.util.Random(noGuessSeed), board.index(row, col));
+        }
+        if (event != null) {
+            event.rows = board.getNumRows();
+            event.cols = board.getNumCols();
+            event.mines = board.getNumMinesDeployed();
+            event.noGuess = true;
+            event.commit();
+        }
+    }
 
-            Label lose = new Label(MARGIN + NUM_COLS * Cell.SIZE / 2, MARGIN/2, "You have lost, try again!");
-            lose.setFont("SansSerif Bold", 24);
-            lose.setForegroundColor(Canvas.WHITE);
-            lose.setBackgroundColor(Canvas.RED);
-            lose.setBorderColor(Canvas.BLACK);
-            add(lose);
+    // The board has just been won: stop the timer, record the score, and
+    // say so.
+    private void win() {
+        timer.stopCounting();
+        this.gameWon = true;
+        GameStats.gameWon();
+        EventLog.log(EventLog.INFO, EventLog.WIN,
+                (int)Math.min(timer.getElapsedMillis(), Integer.MAX_VALUE), 0, 0);
+        recordScore();
+        saveReplay();
+        Label win = new Label(MARGIN + gridWidth / 2, MARGIN/2, "You win! Congrats!");
+        win.setFont("SansSerif Bold", 24);
+        win.setForegroundColor(Canvas.WHITE);
+        win.setBackgroundColor(Canvas.GREEN);
+        win.setBorderColor(Canvas.BLACK);
+        add(win);
+    }
+
+    // The mine at the given cell has just been revealed: stop the timer,
+    // show all the mines, and say so.
+    private void lose(int row, int col) {
+        GameEvents.Loss event = GameEvents.LOSS.isEnabled() ? new GameEvents.Loss() : null;
+        if (event != null)
+            event.begin();
+        this.gameLost=true;
+        GameStats.gameLost();
+        EventLog.log(EventLog.INFO, EventLog.LOSS, row, col, 0);
+        timer.stopCounting();
+        board.showMines();
+        redrawAll(); // wrong flags look different once the game is lost
+        saveReplay();
+        if (event != null) {
+            event.row = row;
+            event.col = col;
+            event.mines = board.getNumMinesDeployed();
+            event.commit();
         }
 
+        Label lose = new Label(MARGIN + gridWidth / 2, MARGIN/2, "You have lost, try again!");
+        lose.setFont("SansSerif Bold", 24);
+        lose.setForegroundColor(Canvas.WHITE);
+        lose.setBackgroundColor(Canvas.RED);
+        lose.setBorderColor(Canvas.BLACK);
+        add(lose);
+    }
+
+    // Write the moves of a finished game to Replay.FILENAME, in the
+    // background. Games being played back by a Replay record nothing, so they
+    // leave the file alone.
+    private void saveReplay() {
+        if (replay != null && replay.getNumMoves() > 0)
+            replay.writeInBackground(Replay.FILENAME);
+    }
+
+    // Get the top scores, loading them the first time. Every game shares them,
+    // so there is only ever one journal and one thread compacting it.
+    private static synchronized TopScores getTopScores() {
+        if (topScores == null) {
+            topScores = new TopScores(Leaderboard.FILENAME);
+            topScores.load();
+        }
+        return topScores;
+    }
+
+    // Put the time it took to win, in milliseconds, on the leaderboard, which
+    // saves it to disk if it made the list, and in the history of all scores.
+    private void recordScore() {
+        int score = (int)Math.min(timer.getElapsedMillis(), Integer.MAX_VALUE);
+        StdOut.printf("Your time is %.3f seconds.\n", score / 1000.0);
+        int rank = getTopScores().record(difficulty, username, score);
+        if (rank >= 0)
+            StdOut.printf("Your time is number %d on the %s leaderboard!\n", rank + 1, difficulty);
+        try {
+            ScoreHistory history = new ScoreHistory("scores.hist");
+            if (history.add(difficulty, seed, score, username))
+                StdOut.printf("Your time is as good as %.1f%% of %d %s games.\n",
+                        history.getPercentile(difficulty, score),
+                        history.getNumScores(difficulty), difficulty);
+            history.close();
+        } catch (IOException e) {
+            StdOut.printf("Can't save score history: %s\n", e.getMessage());
+        }
+    }
+
+    // Save the game so it can be resumed, if it isn't over. Otherwise remove
+    // any old save, so a finished game can't be resumed again.
+    private void saveOnQuit() {
+        if (!isOver()) {
+            GameSave.write(this, GameSave.FILENAME);
+            StdOut.printf("Your game is saved, use this command to resume it: java Minesweeper resume\n");
+        } else {
+            GameSave.delete(GameSave.FILENAME);
+        }
     }
 
     /**
@@ -341,11 +853,38 @@ public class Game extends Window implements EventListener {
         switch (c) {
             case 'q': 
             case 'Q': 
+                saveOnQuit();
+                frames.stop();
                 hide(); // user wants to quit
+                return;
+            case 'h':
+            case 'H':
+                hint(); // user wants a hint
+                break;
+            case 'p':
+            case 'P':
+                togglePause(); // user wants a break, or is back
+                break;
+            case 'w':
+            case 'W':
+                scrollTo(viewRow - viewRows / 2, viewCol); // scroll up
+                break;
+            case 's':
+            case 'S':
+                scrollTo(viewRow + viewRows / 2, viewCol); // scroll down
+                break;
+            case 'a':
+            case 'A':
+                scrollTo(viewRow, viewCol - viewCols / 2); // scroll left
+                break;
+            case 'd':
+            case 'D':
+                scrollTo(viewRow, viewCol + viewCols / 2); // scroll right
                 break;
             default:
                 break; // anything else is ignored
         }
+        requestRepaint();
     }
 
     /**
@@ -356,24 +895,12 @@ public class Game extends Window implements EventListener {
      * @param canvas the canvas on which to draw.
      */
     public void repaintWindowBackground(GUI.Canvas canvas) {
-
+        // Widgets skip drawing when they haven't changed, which relies on the
+        // GUI keeping the canvas from one frame to the next. A paint the game
+        // didn't ask for, e.g. because the window was resized or uncovered,
+        // may have painted over everything, so then every widget draws
+        // itself again. Frames the game asked for only draw what changed.
+        if (!framePosted)
+            redrawAll();
     }
-    /*
-    public void autoFill(int r, int c) {
-        if (r < GRID_WIDTH || r > GRID_WIDTH || c < GRID_HEIGHT || c > GRID_HEIGHT) {
-            return;
-        }
-        if (cells[r][c].getNeighborMineCount() == 0 && !cells[r][c].isRevealed()) {
-            cells[r][c].reveal();
-            autoFill(r+1, c);
-            autoFill(r-1, c);
-            autoFill(r, c+1);
-            autoFill(r, c-1);
-        }
-        else {
-            return;
-        }
-
-    } // close autoFill
-    */
 }
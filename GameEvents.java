@@ -0,0 +1,88 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  GameEvents are Java Flight Recorder events for the slow parts of
+ *  the game, so a recording shows where the time goes.
+ *
+ *  You can record a game using:
+ *    java -XX:StartFlightRecording=filename=game.jfr Minesweeper
+ *  and look at the events using:
+ *    jfr print --categories Minesweeper game.jfr
+ *----------------------------------------------------------------*/
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * <i>GameEvents</i> holds the Flight Recorder event types the game emits:
+ * deploying mines, each reveal (including the cascade it starts), handling a
+ * loss, and each frame drawn. Events are only made when a recording that
+ * includes them is running. Callers check the event type first, e.g.
+ *
+ *   GameEvents.Reveal event = GameEvents.REVEAL.isEnabled() ? new GameEvents.Reveal() : null;
+ *
+ * so when nothing is recording the check is all it costs, and nothing is
+ * allocated.
+ */
+public class GameEvents {
+
+    @Name("minesweeper.DeployMines")
+    @Label("Deploy Mines")
+    @Category("Minesweeper")
+    public static class DeployMines extends Event {
+        @Label("Rows")
+        int rows;
+        @Label("Columns")
+        int cols;
+        @Label("Mines")
+        int mines;
+        @Label("No Guessing")
+        boolean noGuess;
+    }
+
+    @Name("minesweeper.Reveal")
+    @Label("Reveal")
+    @Category("Minesweeper")
+    public static class Reveal extends Event {
+        @Label("Row")
+        int row;
+        @Label("Column")
+        int col;
+        @Label("Cells Revealed")
+        int cells;
+    }
+
+    @Name("minesweeper.Loss")
+    @Label("Loss")
+    @Category("Minesweeper")
+    public static class Loss extends Event {
+        @Label("Row")
+        int row;
+        @Label("Column")
+        int col;
+        @Label("Mines Shown")
+        int mines;
+    }
+
+    @Name("minesweeper.Frame")
+    @Label("Frame")
+    @Category("Minesweeper")
+    public static class Frame extends Event {
+        @Label("Input Latency")
+        @Timespan(Timespan.NANOSECONDS)
+        long latency;
+    }
+
+    /**
+     * The event types, to check whether each is being recorded.
+     */
+    public static final EventType DEPLOY_MINES = EventType.getEventType(DeployMines.class);
+    public static final EventType REVEAL = EventType.getEventType(Reveal.class);
+    public static final EventType LOSS = EventType.getEventType(Loss.class);
+    public static final EventType FRAME = EventType.getEventType(Frame.class);
+
+}
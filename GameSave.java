@@ -0,0 +1,195 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  GameSave writes a game in progress to a file, and reads it back
+ *  so the game can be resumed.
+ *----------------------------------------------------------------*/
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <i>GameSave</i> saves games to a binary file, and loads them again. The
+ * board is saved as three bit-planes, one bit per cell for each of mines,
+ * revealed cells, and flags, so a 1000x1000 board takes about 375 KB. The
+ * neighbor mine counts aren't saved, since they would take more room than
+ * everything else put together; they are found from the mines in one sweep
+ * when the game is loaded. Mines are never deployed again, so the board comes
+ * back exactly as it was. The one exception is a no-guess game saved before
+ * its first reveal: only its flags are kept, and its mines are deployed
+ * when it is resumed and the first cell is revealed.
+ *
+ * File format, all numbers big-endian:
+ *   int magic, int version, int rows, int cols, long seed,
+ *   long elapsed time in ms, int mines pending (see Game.getPendingMines()),
+ *   short length + UTF-8 bytes of the difficulty,
+ *   short length + UTF-8 bytes of the username,
+ *   then (rows * cols + 63) / 64 longs for each of mines, revealed, flags,
+ *   where cell i is bit i % 64 of long i / 64.
+ */
+public class GameSave {
+
+    /**
+     * The file games are saved in.
+     */
+    public static final String FILENAME = "game.sav";
+
+    private static final int MAGIC = 0x4D534731; // "MSG1"
+    private static final int VERSION = 1;
+
+    /**
+     * Save a game to a file. The state of the game is copied right away, but
+     * the file is written by a separate thread, so this returns without
+     * waiting for the disk. The file is written to a temporary file first and
+     * renamed, so an old save is never left half overwritten.
+     * @return the thread writing the file, which can be joined to wait for it.
+     */
+    public static Thread write(Game game, String filename) {
+        Board board = game.getBoard();
+        byte[] difficulty = bytes(game.getDifficulty());
+        byte[] username = bytes(game.getUsername());
+        long[] mines = board.getBits(Board.MINE);
+        long[] revealed = board.getBits(Board.REVEALED);
+        long[] flagged = board.getBits(Board.FLAGGED);
+
+        ByteBuffer buf = ByteBuffer.allocate(36 + 2 + difficulty.length + 2 + username.length
+                + 3 * 8 * mines.length);
+        buf.putInt(MAGIC);
+        buf.putInt(VERSION);
+        buf.putInt(board.getNumRows());
+        buf.putInt(board.getNumCols());
+        buf.putLong(game.getSeed());
+        buf.putLong(game.getElapsedMillis());
+        buf.putInt(game.getPendingMines());
+        buf.putShort((short)difficulty.length).put(difficulty);
+        buf.putShort((short)username.length).put(username);
+        for (long[] plane : new long[][] { mines, revealed, flagged }) {
+            buf.asLongBuffer().put(plane);
+            buf.position(buf.position() + 8 * plane.length);
+        }
+        buf.flip();
+
+        Thread writer = new Thread(() -> {
+            try {
+                writeFile(buf, filename);
+            } catch (IOException e) {
+                StdOut.printf("Can't save game: %s\n", e.getMessage());
+            }
+        }, "game-saver");
+        writer.start();
+        return writer;
+    }
+
+    /**
+     * Load a game saved by write(). The game is ready to show and play.
+     * @throws IOException if the file can't be read, or isn't a saved game.
+     */
+    public static Game read(String filename) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel in = FileChannel.open(new File(filename).toPath(), StandardOpenOption.READ)) {
+            if (in.size() > Integer.MAX_VALUE)
+                throw new IOException(filename + " is not a saved game");
+            buf = ByteBuffer.allocate((int)in.size());
+            while (buf.hasRemaining() && in.read(buf) >= 0)
+                ;
+            buf.flip();
+        }
+        try {
+            if (buf.getInt() != MAGIC)
+                throw new IOException(filename + " is not a saved game");
+            if (buf.getInt() != VERSION)
+                throw new IOException(filename + " was saved by a different version");
+            int rows = buf.getInt();
+            int cols = buf.getInt();
+            long seed = buf.getLong();
+            long elapsed = buf.getLong();
+            int pending = buf.getInt();
+            String difficulty = string(buf);
+            String username = string(buf);
+            if (rows <= 0 || cols <= 0 || (long)rows * cols > Integer.MAX_VALUE)
+                throw new IOException(filename + " has a bad board size");
+            int words = (int)(((long)rows * cols + 63) >>> 6);
+            if (buf.remaining() != 3L * 8 * words)
+                throw new IOException(filename + " is the wrong length");
+            if (elapsed < 0 || pending > (long)rows * cols)
+                throw new IOException(filename + " is damaged");
+            long[][] planes = new long[3][words];
+            for (long[] plane : planes) {
+                buf.asLongBuffer().get(plane);
+                buf.position(buf.position() + 8 * words);
+            }
+
+            // Everything is checked before the game is made, since making it
+            // opens a window and starts a thread.
+            // A no-guess game that hasn't had its first reveal yet has no
+            // mines or revealed cells, but may already have flags.
+            Board board = new Board(rows, cols);
+            if (pending < 0)
+                board.setBits(planes[0], planes[1], planes[2]);
+            else
+                board.setBits(new long[words], new long[words], planes[2]);
+            Game game = new Game(username, difficulty, board);
+            game.setSeed(seed);
+            game.setElapsedMillis(elapsed);
+            if (pending >= 0)
+                game.deployMinesNoGuess(pending, seed);
+            return game;
+        } catch (java.nio.BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException(filename + " is damaged");
+        }
+    }
+
+    /**
+     * Remove a saved game, if there is one.
+     */
+    public static void delete(String filename) {
+        try {
+            Files.deleteIfExists(new File(filename).toPath());
+        } catch (IOException e) {
+            StdOut.printf("Can't remove saved game: %s\n", e.getMessage());
+        }
+    }
+
+    // Write the bytes to a temporary file, force them to disk, and rename the
+    // temporary file over the real one.
+    private static void writeFile(ByteBuffer buf, String filename) throws IOException {
+        Path file = new File(filename).toPath();
+        Path temp = new File(filename + ".tmp").toPath();
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining())
+                out.write(buf);
+            out.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Get the UTF-8 bytes of a string, at most what fits in a short length.
+    private static byte[] bytes(String s) {
+        byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        return b.length <= Short.MAX_VALUE ? b : java.util.Arrays.copyOf(b, Short.MAX_VALUE);
+    }
+
+    // Read a string written as a short length and UTF-8 bytes.
+    private static String string(ByteBuffer buf) throws IOException {
+        int n = buf.getShort();
+        if (n < 0 || n > buf.remaining())
+            throw new IOException("saved game is damaged");
+        String s = new String(buf.array(), buf.arrayOffset() + buf.position(), n, StandardCharsets.UTF_8);
+        buf.position(buf.position() + n);
+        return s;
+    }
+
+}
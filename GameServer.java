@@ -0,0 +1,333 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  GameServer hosts many headless games at once, and lets programs
+ *  play them over a socket on this computer.
+ *
+ *  You can start a server using:
+ *    java GameServer [port]
+ *  and try it by hand using e.g.:
+ *    nc localhost 7777
+ *----------------------------------------------------------------*/
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A <i>GameServer</i> keeps any number of game sessions, each a Board with no
+ * window, made from a seed and difficulty level the same way Minesweeper
+ * makes them, so a session and a windowed game with the same seed have the
+ * same mines. Clients connect over TCP on the loopback address and send one
+ * command per line. Each command gets one line back, starting with OK or ERR.
+ *
+ *   NEW level seed [rows cols] [mines] [noguess]
+ *                        -> OK id rows cols mines
+ *   CLICK id row col [left|middle|right]
+ *                        -> OK state n cell:count ...
+ *                           where state is PLAYING, WON, or LOST, and the n
+ *                           cells (as row * cols + col) were just revealed.
+ *                           Right flags the cell and middle chords on it.
+ *   BOARD id             -> OK text, one character per cell, row after row:
+ *                           '.' hidden, 'F' flagged, '0'-'8' revealed,
+ *                           '*' revealed mine
+ *   CLOSE id             -> OK
+ *   QUIT                 closes the connection
+ *
+ * Each connection has its own thread: a virtual thread on Java 21 and later,
+ * which is cheap enough for thousands of connections, or a platform thread
+ * before that. Sessions don't have threads. Each has a small bounded queue
+ * of commands; whichever connection finds the session idle runs everything
+ * in its queue, one at a time, so sessions can be shared between connections
+ * safely. If the queue is full the command is refused with ERR busy. An idle
+ * session costs its board, one byte per cell, plus a few hundred bytes.
+ */
+public class GameServer {
+
+    /**
+     * The port used if none is given.
+     */
+    public static final int DEFAULT_PORT = 7777;
+
+    /**
+     * Most commands that can be waiting for one session.
+     */
+    public static final int QUEUE_SIZE = 16;
+
+    // A command waiting in a session's queue, and its reply once it has run.
+    private static class Command {
+        final String[] words;
+        final Thread waiter = Thread.currentThread();
+        volatile String reply;
+
+        Command(String[] words) {
+            this.words = words;
+        }
+    }
+
+    // One game. The board and pending are only touched by the thread
+    // running the session's queue.
+    private static class Session {
+        final Board board;
+        final long seed;
+        int pending;   // mines to deploy on the first click, or -1
+        final ArrayBlockingQueue<Command> queue = new ArrayBlockingQueue<Command>(QUEUE_SIZE);
+        final AtomicBoolean running = new AtomicBoolean(false);
+
+        Session(Board board, long seed, int pending) {
+            this.board = board;
+            this.seed = seed;
+            this.pending = pending;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Session> sessions = new ConcurrentHashMap<Integer, Session>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    /**
+     * Get the number of sessions open.
+     */
+    public int getNumSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Accept connections on the given port of the loopback address, forever,
+     * handling each one on its own thread.
+     */
+    public void serve(int port) throws IOException {
+        ExecutorService connections = newConnectionExecutor();
+        try (ServerSocket server = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress())) {
+            StdOut.printf("Serving games on %s\n", server.getLocalSocketAddress());
+            while (true) {
+                Socket socket = server.accept();
+                connections.execute(() -> handle(socket));
+            }
+        }
+    }
+
+    /**
+     * Run one command line and return the reply line. This is what a
+     * connection does with each line it reads.
+     */
+    public String execute(String line) {
+        String[] words = line.trim().split("\\s+");
+        String verb = words[0].toUpperCase();
+        try {
+            switch (verb) {
+                case "NEW":
+                    return newSession(words);
+                case "CLOSE":
+                    return sessions.remove(parseInt(words, 1)) != null ? "OK" : "ERR no such session";
+                case "CLICK":
+                case "BOARD":
+                    Session session = sessions.get(parseInt(words, 1));
+                    if (session == null)
+                        return "ERR no such session";
+                    return submit(session, new Command(words));
+                default:
+                    return "ERR unknown command " + words[0];
+            }
+        } catch (IllegalArgumentException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    // Read commands from a connection and write the replies, until the
+    // client quits or goes away.
+    private void handle(Socket socket) {
+        try (Socket s = socket) {
+            s.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().isEmpty())
+                    continue;
+                if (line.trim().equalsIgnoreCase("QUIT"))
+                    break;
+                out.write(execute(line));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The client went away, nothing to do.
+        }
+    }
+
+    // NEW level seed [rows cols] [mines] [noguess]
+    private String newSession(String[] words) {
+        String level = word(words, 1).toLowerCase();
+        long seed = Long.parseLong(word(words, 2));
+        int n = words.length;
+        boolean noGuess = words[n - 1].equalsIgnoreCase("noguess");
+        if (noGuess)
+            n--;
+        int rows = Game.NUM_ROWS, cols = Game.NUM_COLS;
+        if (n >= 5) {
+            rows = parseInt(words, 3);
+            cols = parseInt(words, 4);
+        }
+        if (rows <= 0 || cols <= 0 || (long)rows * cols > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("bad board size");
+        int mines = Minesweeper.getLevelMines(level);
+        if (n == 4 || n == 6)
+            mines = parseInt(words, n - 1);
+        if (mines < 0)
+            throw new IllegalArgumentException("level " + level + " needs a number of mines");
+        mines = Math.min(mines, noGuess ? Math.max(rows * cols - 9, 0) : rows * cols);
+
+        Board board = new Board(rows, cols);
+        if (!noGuess) {
+            // StdRandom is shared by every session, so only one session at a
+            // time can deploy mines with it.
+            synchronized (StdRandom.class) {
+                StdRandom.setSeed(seed);
+                board.deployMines(mines);
+            }
+        }
+        int id = nextId.getAndIncrement();
+        sessions.put(id, new Session(board, seed, noGuess ? mines : -1));
+        return "OK " + id + " " + rows + " " + cols + " " + mines;
+    }
+
+    // Put a command in a session's queue and wait for its reply. If nobody is
+    // running the queue, run it here until it is empty.
+    private String submit(Session session, Command command) {
+        if (!session.queue.offer(command))
+            return "ERR busy";
+        while (command.reply == null) {
+            if (session.running.compareAndSet(false, true)) {
+                try {
+                    Command next;
+                    while ((next = session.queue.poll()) != null) {
+                        next.reply = run(session, next.words);
+                        if (next != command)
+                            LockSupport.unpark(next.waiter);
+                    }
+                } finally {
+                    session.running.set(false);
+                }
+                // A command queued after the last poll but before running was
+                // cleared has a waiter that found the session busy and is
+                // parked. Wake the first one so it runs the queue itself.
+                Command waiting = session.queue.peek();
+                if (waiting != null)
+                    LockSupport.unpark(waiting.waiter);
+            } else {
+                // Whoever is running the queue wakes this thread, either with
+                // the reply or to take over the queue.
+                LockSupport.park(session);
+            }
+        }
+        return command.reply;
+    }
+
+    // Run one command on a session. Only called by the thread running the
+    // session's queue.
+    private static String run(Session session, String[] words) {
+        try {
+            if (words[0].equalsIgnoreCase("BOARD"))
+                return board(session.board);
+            return click(session, parseInt(words, 2), parseInt(words, 3), words.length > 4 ? words[4].toLowerCase() : "left");
+        } catch (RuntimeException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    // Click a cell, following the same rules as Game.click().
+    private static String click(Session session, int row, int col, String button) {
+        Board board = session.board;
+        if (!board.inBounds(row, col))
+            return "ERR row or column off the board";
+        int revealed = 0;
+        int code = Replay.buttonCode(button);
+        if (board.isWon() || board.isLost()) {
+            // The game is over, nothing changes.
+        } else if (code == Replay.RIGHT) {
+            board.toggleFlag(row, col);
+        } else if (code == Replay.MIDDLE) {
+            revealed = board.chord(row, col);
+        } else {
+            if (session.pending >= 0) {
+                if (NoGuessGenerator.generate(board, session.pending, session.seed, row, col) < 0)
+                    MinePlacer.deploy(board, session.pending, new java.util.Random(session.seed), board.index(row, col));
+                session.pending = -1;
+            }
+            revealed = board.reveal(row, col);
+        }
+        StringBuilder reply = new StringBuilder(16 + 8 * revealed);
+        reply.append("OK ").append(board.isWon() ? "WON" : board.isLost() ? "LOST" : "PLAYING");
+        reply.append(' ').append(revealed);
+        int end = board.getNumRevealed();
+        for (int k = end - revealed; k < end; k++) {
+            int i = board.getRevealedCell(k);
+            reply.append(' ').append(i).append(':').append(board.getState(i) & Board.COUNT_MASK);
+        }
+        return reply.toString();
+    }
+
+    // Show the board one character per cell.
+    private static String board(Board board) {
+        StringBuilder reply = new StringBuilder(3 + board.getNumCells());
+        reply.append("OK ");
+        for (int i = 0; i < board.getNumCells(); i++) {
+            int state = board.getState(i);
+            if ((state & Board.REVEALED) == 0)
+                reply.append((state & Board.FLAGGED) != 0 ? 'F' : '.');
+            else if ((state & Board.MINE) != 0)
+                reply.append('*');
+            else
+                reply.append((char)('0' + (state & Board.COUNT_MASK)));
+        }
+        return reply.toString();
+    }
+
+    private static String word(String[] words, int i) {
+        if (i >= words.length)
+            throw new IllegalArgumentException("not enough arguments");
+        return words[i];
+    }
+
+    private static int parseInt(String[] words, int i) {
+        return Integer.parseInt(word(words, i));
+    }
+
+    // Make the executor that runs one thread per connection: virtual threads
+    // if this Java has them, or else daemon platform threads.
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "game-connection");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * A main() function, which runs a server on the given port, or
+     * DEFAULT_PORT.
+     */
+    public static void main(String args[]) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        new GameServer().serve(port);
+    }
+
+}
@@ -0,0 +1,206 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  GameStats counts what happens in games as they are played, and
+ *  shows the counts over JMX.
+ *
+ *  You can watch the counts while playing using:
+ *    jconsole
+ *  and looking under Minesweeper:type=GameStats.
+ *----------------------------------------------------------------*/
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+/**
+ * <i>GameStats</i> keeps counters for every game played in this program:
+ * games started, won, and lost, clicks, cells revealed, frames drawn, and how
+ * long it takes from an input to the frame that shows it. The game calls the
+ * static methods as things happen. They only add to counters and never
+ * allocate, so they can be left on all the time. The counters are shown over
+ * JMX by the one GameStats object, which is registered when the class is
+ * first used.
+ *
+ * Latencies are counted in a histogram, in microseconds, with four buckets
+ * for each power of two, so percentiles are accurate to within 25%.
+ */
+public class GameStats implements GameStatsMBean {
+
+    /**
+     * The JMX name the counters are registered under.
+     */
+    public static final String NAME = "Minesweeper:type=GameStats";
+
+    // Four buckets for each power of two up to 2^63.
+    private static final int NUM_BUCKETS = 4 * 63;
+
+    private static final GameStats STATS = new GameStats();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(STATS, new ObjectName(NAME));
+        } catch (Exception e) {
+            StdOut.printf("Can't register game stats with JMX: %s\n", e.getMessage());
+        }
+    }
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesWon = new LongAdder();
+    private final LongAdder gamesLost = new LongAdder();
+    private final LongAdder clicks = new LongAdder();
+    private final LongAdder cellsRevealed = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final AtomicLongArray latency = new AtomicLongArray(NUM_BUCKETS);
+
+    // Clicks in the second numbered clickSecond, and in the one before it.
+    private long clickSecond;
+    private long clicksThisSecond;
+    private long clicksLastSecond;
+
+    private GameStats() {
+    }
+
+    /**
+     * Count a game whose mines have been deployed.
+     */
+    public static void gameStarted() {
+        STATS.gamesStarted.increment();
+    }
+
+    /**
+     * Count a game won.
+     */
+    public static void gameWon() {
+        STATS.gamesWon.increment();
+    }
+
+    /**
+     * Count a game lost.
+     */
+    public static void gameLost() {
+        STATS.gamesLost.increment();
+    }
+
+    /**
+     * Count a click on a cell.
+     */
+    public static void click() {
+        clicks(1);
+    }
+
+    /**
+     * Count a batch of clicks on cells.
+     */
+    public static void clicks(int n) {
+        STATS.clicks.add(n);
+        STATS.countClicksThisSecond(System.nanoTime() / 1000000000L, n);
+    }
+
+    /**
+     * Count safe cells revealed.
+     */
+    public static void cellsRevealed(int n) {
+        STATS.cellsRevealed.add(n);
+    }
+
+    /**
+     * Count a frame drawn.
+     * @param latencyNanos the time since the input the frame shows, or -1 if
+     * the frame wasn't asked for by an input, e.g. a timer tick.
+     */
+    public static void frame(long latencyNanos) {
+        STATS.frames.increment();
+        if (latencyNanos >= 0)
+            STATS.latency.incrementAndGet(bucket(latencyNanos / 1000));
+    }
+
+    public long getGamesStarted() {
+        return gamesStarted.sum();
+    }
+
+    public long getGamesWon() {
+        return gamesWon.sum();
+    }
+
+    public long getGamesLost() {
+        return gamesLost.sum();
+    }
+
+    public long getClicks() {
+        return clicks.sum();
+    }
+
+    public synchronized long getClicksPerSecond() {
+        long second = System.nanoTime() / 1000000000L;
+        if (second == clickSecond + 1)
+            return clicksThisSecond;
+        if (second == clickSecond)
+            return clicksLastSecond;
+        return 0;
+    }
+
+    public long getCellsRevealed() {
+        return cellsRevealed.sum();
+    }
+
+    public long getFrames() {
+        return frames.sum();
+    }
+
+    public long getInputLatencyP50Micros() {
+        return percentile(0.50);
+    }
+
+    public long getInputLatencyP99Micros() {
+        return percentile(0.99);
+    }
+
+    private synchronized void countClicksThisSecond(long second, int n) {
+        if (second != clickSecond) {
+            clicksLastSecond = (second == clickSecond + 1) ? clicksThisSecond : 0;
+            clicksThisSecond = 0;
+            clickSecond = second;
+        }
+        clicksThisSecond += n;
+    }
+
+    // Get the latency in microseconds that the given fraction of inputs were
+    // shown within, as the top of the histogram bucket it falls in.
+    private long percentile(double p) {
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++)
+            total += latency.get(i);
+        if (total == 0)
+            return 0;
+        long target = (long)Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += latency.get(i);
+            if (seen >= target)
+                return bucketTop(i);
+        }
+        return bucketTop(NUM_BUCKETS - 1);
+    }
+
+    // Get the histogram bucket for a value. Values 0 to 3 have their own
+    // buckets, and after that each power of two is split in four by the next
+    // two bits of the value.
+    private static int bucket(long v) {
+        if (v < 4)
+            return (int)Math.max(v, 0);
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        return 4 * (e - 1) + (int)((v >>> (e - 2)) & 3);
+    }
+
+    // Get the largest value that goes in a bucket.
+    private static long bucketTop(int i) {
+        if (i < 4)
+            return i;
+        int e = i / 4 + 1;
+        long low = (long)(4 + i % 4) << (e - 2);
+        return low + (1L << (e - 2)) - 1;
+    }
+
+}
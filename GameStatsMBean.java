@@ -0,0 +1,60 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  GameStatsMBean lists the counters GameStats shows over JMX.
+ *----------------------------------------------------------------*/
+
+/**
+ * The attributes of <i>GameStats</i> that can be read over JMX, e.g. with
+ * jconsole, under Minesweeper:type=GameStats.
+ */
+public interface GameStatsMBean {
+
+    /**
+     * Get the number of games that have had mines deployed.
+     */
+    long getGamesStarted();
+
+    /**
+     * Get the number of games won.
+     */
+    long getGamesWon();
+
+    /**
+     * Get the number of games lost.
+     */
+    long getGamesLost();
+
+    /**
+     * Get the number of clicks on cells.
+     */
+    long getClicks();
+
+    /**
+     * Get the number of clicks on cells in the last whole second.
+     */
+    long getClicksPerSecond();
+
+    /**
+     * Get the number of safe cells revealed, including by cascades.
+     */
+    long getCellsRevealed();
+
+    /**
+     * Get the number of frames drawn.
+     */
+    long getFrames();
+
+    /**
+     * Get the median time from an input to the frame showing it, in
+     * microseconds.
+     */
+    long getInputLatencyP50Micros();
+
+    /**
+     * Get the 99th percentile time from an input to the frame showing it, in
+     * microseconds.
+     */
+    long getInputLatencyP99Micros();
+
+}
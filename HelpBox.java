@@ -24,14 +24,23 @@ public class HelpBox extends Widget {
      */
     public static final int HEIGHT = 75;
 
+    // The game this box is part of.
+    private Game game;
+
+    // The game's redraw count the last time this box was drawn. The text never
+    // changes, so it only needs to be drawn again when the whole window is.
+    private int drawnRedraw = -1;
+
     /**
      * Initialize a new HelpBox object. It will be drawn at the specified
      * position.
+     * @param g the game this box is part of.
      * @param x the x coordinate where the help box will be drawn.
      * @param y the y coordinate where the help box will be drawn.
      */
-    public HelpBox(int x, int y) {
+    public HelpBox(Game g, int x, int y) {
         super(x, y, WIDTH, HEIGHT);
+        game = g;
     }
 
     /**
@@ -43,6 +52,10 @@ public class HelpBox extends Widget {
      * @param canvas the canvas on which to draw.
      */
     public void repaint(GUI.Canvas canvas) {
+        if (game.getRedrawCount() == drawnRedraw)
+            return;
+        drawnRedraw = game.getRedrawCount();
+
         // Draw a white box with a black outline.
         canvas.setPenColor(Canvas.WHITE);
         canvas.filledRectangle(x, y, width, height);
@@ -52,8 +65,9 @@ public class HelpBox extends Widget {
 
         // Draw some help text.
         canvas.setFont(Canvas.DEFAULT_FONT);
-        canvas.textLeft(x + 15, y + 15, "Q - Quit");
-        canvas.textLeft(x + 15, y + 37.5, "Left button - Reveal");
+        canvas.textLeft(x + 15, y + 15, "Q Quit  H Hint  P Pause");
+        canvas.textLeft(x + 15, y + 37.5, "L Reveal  R Flag  M Chord");
+        canvas.textLeft(x + 15, y + 60, "W/A/S/D - Scroll");
     }
 
 }
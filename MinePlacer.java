@@ -0,0 +1,175 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  MinePlacer picks random cells for mines, using a strategy that
+ *  stays fast at any density, from a handful of mines up to a board
+ *  that is almost entirely mines.
+ *----------------------------------------------------------------*/
+
+import java.util.Random;
+
+/**
+ * <i>MinePlacer</i> deploys mines on an empty Board. All randomness comes from
+ * StdRandom, or from a given Random, so the same seed always gives the same
+ * board. The strategy depends on the fraction of cells that get a mine:
+ *   - sparse boards pick random cells and skip ones that already have a mine
+ *   - medium boards shuffle part of a list of all the cells
+ *   - very dense boards fill every cell, then pick random cells to clear
+ * Skipping repeats is cheapest when repeats are rare, but the number of
+ * draws it needs grows without bound as the board fills up, which is what
+ * the other two strategies avoid.
+ */
+public class MinePlacer {
+
+    /**
+     * Densities at or below this use sparse rejection sampling. This covers
+     * all the built-in levels on the usual board, so their seeds give the same
+     * boards as they always have.
+     */
+    public static final double SPARSE_DENSITY = 0.25;
+
+    /**
+     * Densities at or above this fill the board and clear the safe cells.
+     */
+    public static final double DENSE_DENSITY = 0.75;
+
+    /**
+     * Deploy the given number of mines on an empty board, using StdRandom, then
+     * compute the neighbor mine counts of every cell.
+     * @param board the board, which must not have any mines yet.
+     * @param mines the number of mines to deploy.
+     */
+    public static void deploy(Board board, int mines) {
+        deploy(board, mines, null, -1);
+    }
+
+    /**
+     * Deploy the given number of mines on an empty board, keeping the 3x3
+     * block around one cell free of mines, then compute the neighbor mine
+     * counts of every cell.
+     * @param board the board, which must not have any mines yet.
+     * @param mines the number of mines to deploy.
+     * @param rng where to get random numbers, or null to use StdRandom.
+     * @param safeCell the index of the cell to keep clear around, usually the
+     * first cell clicked, or -1 to let mines go anywhere.
+     */
+    public static void deploy(Board board, int mines, Random rng, int safeCell) {
+        int n = board.getNumCells() - numBlocked(board, safeCell);
+        if (mines < 0 || mines > n)
+            throw new IllegalArgumentException("can't deploy " + mines + " mines on " + n + " cells");
+        double density = (double)mines / n;
+        if (density <= SPARSE_DENSITY)
+            placeSparse(board, mines, rng, safeCell);
+        else if (density >= DENSE_DENSITY)
+            placeDense(board, mines, rng, safeCell);
+        else
+            placeShuffled(board, mines, rng, safeCell);
+        board.countNeighborMines();
+    }
+
+    /**
+     * Get the number of mines for a board with the given number of cells, when
+     * the given percent of them should be mines. The result is rounded, but is
+     * always between 0 and cells.
+     */
+    public static int minesForDensity(int cells, double percent) {
+        if (percent < 0 || percent > 100)
+            throw new IllegalArgumentException("density must be between 0% and 100%: " + percent);
+        return (int)Math.round(cells * percent / 100.0);
+    }
+
+    // Pick random cells, skipping any that are already mines. This draws a
+    // row then a column, just like the original placement code, so seeds
+    // from before still give the same boards.
+    private static void placeSparse(Board board, int mines, Random rng, int safeCell) {
+        int rows = board.getNumRows();
+        int cols = board.getNumCols();
+        int placed = 0;
+        while (placed < mines) {
+            int r = uniform(rng, 0, rows);
+            int c = uniform(rng, 0, cols);
+            int i = board.index(r, c);
+            if (!isBlocked(board, safeCell, i) && board.setMine(i, true))
+                placed++;
+        }
+    }
+
+    // Fill every cell with a mine, then pick random mines to clear until only
+    // the right number are left. Almost every draw hits a mine, since at least
+    // DENSE_DENSITY of the board stays mined the whole time.
+    private static void placeDense(Board board, int mines, Random rng, int safeCell) {
+        int n = board.getNumCells();
+        int allowed = 0;
+        for (int i = 0; i < n; i++) {
+            if (!isBlocked(board, safeCell, i)) {
+                board.setMine(i, true);
+                allowed++;
+            }
+        }
+        int cleared = 0;
+        while (cleared < allowed - mines) {
+            if (board.setMine(uniform(rng, 0, n), false))
+                cleared++;
+        }
+    }
+
+    // Shuffle just the first k entries of a list of all the cells, where k is
+    // the number of mines or the number of safe cells, whichever is smaller.
+    // Those k cells get mines, or when most of the board is mined they are the
+    // safe cells and everything else gets a mine.
+    private static void placeShuffled(Board board, int mines, Random rng, int safeCell) {
+        int[] order = new int[board.getNumCells()];
+        int n = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (!isBlocked(board, safeCell, i))
+                order[n++] = i;
+        }
+        boolean complement = mines > n / 2;
+        int k = complement ? n - mines : mines;
+        for (int i = 0; i < k; i++) {
+            int j = uniform(rng, i, n);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        if (complement) {
+            for (int i = 0; i < n; i++)
+                board.setMine(order[i], true);
+            for (int i = 0; i < k; i++)
+                board.setMine(order[i], false);
+        } else {
+            for (int i = 0; i < k; i++)
+                board.setMine(order[i], true);
+        }
+    }
+
+    // Get a random number from lo up to but not including hi.
+    private static int uniform(Random rng, int lo, int hi) {
+        if (rng == null)
+            return StdRandom.uniform(lo, hi);
+        return lo + rng.nextInt(hi - lo);
+    }
+
+    // Check whether cell i is in the 3x3 block around safeCell.
+    private static boolean isBlocked(Board board, int safeCell, int i) {
+        if (safeCell < 0)
+            return false;
+        int cols = board.getNumCols();
+        int dr = i / cols - safeCell / cols;
+        int dc = i % cols - safeCell % cols;
+        return dr >= -1 && dr <= 1 && dc >= -1 && dc <= 1;
+    }
+
+    // Count the cells in the 3x3 block around safeCell, which can be fewer
+    // than 9 at the edges of the board.
+    private static int numBlocked(Board board, int safeCell) {
+        if (safeCell < 0)
+            return 0;
+        int row = safeCell / board.getNumCols();
+        int col = safeCell % board.getNumCols();
+        int rows = Math.min(row + 1, board.getNumRows() - 1) - Math.max(row - 1, 0) + 1;
+        int cols = Math.min(col + 1, board.getNumCols() - 1) - Math.max(col - 1, 0) + 1;
+        return rows * cols;
+    }
+
+}
@@ -0,0 +1,594 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  MineProbabilities works out the exact chance that each hidden
+ *  cell holds a mine, given the numbers that are showing.
+ *----------------------------------------------------------------*/
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A <i>MineProbabilities</i> object computes, for every hidden cell on a Board,
+ * the probability that it holds a mine, counting every placement of the
+ * remaining mines that agrees with the revealed numbers as equally likely.
+ *
+ * First a Solver settles the cells that are certain. The hidden cells next to
+ * revealed numbers that are left over (the frontier) are split into
+ * components: two cells are in the same component if some number touches both
+ * of them. Each component is counted on its own, on a fork-join pool, by
+ * going through its cells one at a time and keeping, for each combination of
+ * how many mines the numbers still need, how many ways there are to get there
+ * with each number of mines so far. Partial placements that leave the numbers
+ * needing the same thing are merged, so this grows with how many numbers are
+ * "open" at once rather than with 2 to the number of cells. The components are
+ * then combined using how many mines are left over for the cells that aren't
+ * next to any number.
+ *
+ * Ways are counted with doubles. The numbers of ways for a component of more
+ * than about a thousand cells don't fit in a double, so while counting, each
+ * layer of partial placements is scaled down so its largest count is 1, and
+ * the log of the scale is kept to put the answers back in proportion at the
+ * end. Only ratios of ways are ever needed, so each component's ways are also
+ * scaled so the largest is 1 before the components are combined.
+ */
+public class MineProbabilities {
+
+    // The board and the solver that settles the certain cells.
+    private Board board;
+    private Solver solver;
+
+    // Frontier cells in increasing order, and the chance of a mine in each.
+    private int[] frontierCells = new int[0];
+    private double[] frontierChances = new double[0];
+
+    // The chance of a mine in each hidden cell not next to any number.
+    private double otherChance = 0;
+
+    // How many components the frontier was split into, last time.
+    private int numComponents = 0;
+
+    /**
+     * Constructor: Initializes a calculator for the given board, using the
+     * given solver for the cells that are certain. Call compute() to do the
+     * work.
+     */
+    public MineProbabilities(Board board, Solver solver) {
+        this.board = board;
+        this.solver = solver;
+    }
+
+    /**
+     * Work out the chance of a mine in every hidden cell, for the board as it
+     * is now.
+     */
+    public void compute() {
+        solver.solve();
+        solver.trimFrontier();
+
+        // Give each unknown frontier cell a number, and join the cells touched
+        // by each revealed number into one component.
+        HashMap<Integer, Integer> ids = new HashMap<Integer, Integer>();
+        ArrayList<Integer> cellList = new ArrayList<Integer>();
+        int[] parent = new int[16];
+        int[] around = new int[8];
+        for (int k = 0; k < solver.getFrontierSize(); k++) {
+            int n = solver.unknownNeighbors(solver.getFrontier(k), around);
+            int first = -1;
+            for (int j = 0; j < n; j++) {
+                Integer id = ids.get(around[j]);
+                if (id == null) {
+                    id = cellList.size();
+                    ids.put(around[j], id);
+                    cellList.add(around[j]);
+                    if (id == parent.length)
+                        parent = Arrays.copyOf(parent, 2 * id);
+                    parent[id] = id;
+                }
+                if (first < 0)
+                    first = id;
+                else
+                    parent[find(parent, id)] = find(parent, first);
+            }
+        }
+
+        // Sort the numbers into their components.
+        int numCells = cellList.size();
+        HashMap<Integer, Component> byRoot = new HashMap<Integer, Component>();
+        ArrayList<Component> components = new ArrayList<Component>();
+        for (int k = 0; k < solver.getFrontierSize(); k++) {
+            int number = solver.getFrontier(k);
+            int n = solver.unknownNeighbors(number, around);
+            int root = find(parent, ids.get(around[0]));
+            Component comp = byRoot.get(root);
+            if (comp == null) {
+                comp = new Component();
+                byRoot.put(root, comp);
+                components.add(comp);
+            }
+            comp.addConstraint(Arrays.copyOf(around, n), solver.minesLeft(number));
+        }
+        numComponents = components.size();
+
+        // Count each component on its own, in parallel.
+        Component[] comps = components.toArray(new Component[0]);
+        ForkJoinPool.commonPool().invoke(new CountTask(comps, 0, comps.length));
+
+        combine(comps, numCells);
+    }
+
+    /**
+     * Get the chance that the cell at the given index holds a mine, as of the
+     * last call to compute(). Revealed cells have no chance of a mine.
+     */
+    public double getProbability(int i) {
+        int state = board.getState(i);
+        if ((state & Board.REVEALED) != 0 || solver.isKnownSafe(i))
+            return 0.0;
+        if (solver.isKnownMine(i))
+            return 1.0;
+        int k = Arrays.binarySearch(frontierCells, i);
+        if (k >= 0)
+            return frontierChances[k];
+        return otherChance;
+    }
+
+    /**
+     * Get the chance that the cell at the given row and column holds a mine.
+     */
+    public double getProbability(int row, int col) {
+        return getProbability(board.index(row, col));
+    }
+
+    /**
+     * Get the number of independent components the frontier was split into
+     * by the last call to compute().
+     */
+    public int getNumComponents() {
+        return numComponents;
+    }
+
+    // Combine the ways of each component with the ways of placing the left
+    // over mines in the cells that aren't next to any number.
+    private void combine(Component[] comps, int numFrontier) {
+        int hidden = board.getNumCells() - board.getNumRevealed();
+        int others = hidden - solver.getNumSafe() - solver.getNumMines() - numFrontier;
+        int left = board.getNumMinesDeployed() - solver.getNumMines();
+
+        // weight[s] is proportional to C(others, left - s), the ways to put
+        // the rest of the mines in the other cells when the frontier has s.
+        double[] weight = binomialWeights(others, left);
+
+        // Ways for all the components together, and for all but each one,
+        // using products of the components before and after it.
+        int c = comps.length;
+        double[][] before = new double[c + 1][];
+        double[][] after = new double[c + 1][];
+        before[0] = new double[] { 1 };
+        after[c] = new double[] { 1 };
+        for (int k = 0; k < c; k++)
+            before[k + 1] = multiply(before[k], comps[k].ways, left);
+        for (int k = c - 1; k >= 0; k--)
+            after[k] = multiply(comps[k].ways, after[k + 1], left);
+        double[] all = before[c];
+        double total = 0, otherMines = 0;
+        for (int s = 0; s < all.length; s++) {
+            total += all[s] * weight[s];
+            otherMines += all[s] * weight[s] * (left - s);
+        }
+        otherChance = (others > 0 && total > 0) ? otherMines / total / others : 0;
+
+        frontierCells = new int[numFrontier];
+        frontierChances = new double[numFrontier];
+        int f = 0;
+        for (int k = 0; k < c; k++) {
+            Component comp = comps[k];
+            double[] rest = multiply(before[k], after[k + 1], left);
+            // inWeight[m] = ways for everything outside this component, given
+            // that this component has m mines.
+            double[] inWeight = new double[comp.ways.length];
+            for (int m = 0; m < inWeight.length; m++) {
+                for (int s = 0; s < rest.length && m + s < weight.length; s++)
+                    inWeight[m] += rest[s] * weight[m + s];
+            }
+            for (int j = 0; j < comp.cells.length; j++) {
+                double mine = 0;
+                double[] mineWays = comp.mineWays[j];
+                for (int m = 0; m < mineWays.length && m < inWeight.length; m++)
+                    mine += mineWays[m] * inWeight[m];
+                frontierCells[f] = comp.cells[j];
+                frontierChances[f] = total > 0 ? mine / total : 0;
+                f++;
+            }
+        }
+
+        // Sort the frontier cells, for binary search.
+        long[] packed = new long[numFrontier];
+        for (int k = 0; k < numFrontier; k++)
+            packed[k] = ((long)frontierCells[k] << 32) | k;
+        Arrays.sort(packed);
+        double[] chances = new double[numFrontier];
+        for (int k = 0; k < numFrontier; k++) {
+            frontierCells[k] = (int)(packed[k] >>> 32);
+            chances[k] = frontierChances[(int)packed[k]];
+        }
+        frontierChances = chances;
+    }
+
+    // Get weights proportional to C(n, left - s) for s = 0 .. left, with zero
+    // where that's impossible. Logs are used so huge n doesn't overflow.
+    private static double[] binomialWeights(int n, int left) {
+        double[] weight = new double[Math.max(left, 0) + 1];
+        int s0 = Math.max(0, left - n); // the frontier must hold at least this many
+        if (left < 0)
+            return weight;
+        double[] logs = new double[weight.length];
+        double max = 0;
+        for (int s = s0; s <= left; s++) {
+            // C(n, left-s) / C(n, left-s0), built up one step at a time.
+            if (s > s0)
+                logs[s] = logs[s - 1] + Math.log((double)(left - s + 1) / (n - left + s));
+            max = Math.max(max, logs[s]);
+        }
+        for (int s = s0; s <= left; s++)
+            weight[s] = Math.exp(logs[s] - max);
+        return weight;
+    }
+
+    // Multiply two polynomials, dropping terms past the given degree.
+    private static double[] multiply(double[] a, double[] b, int maxDegree) {
+        int n = Math.min(a.length + b.length - 1, Math.max(maxDegree, 0) + 1);
+        double[] c = new double[n];
+        for (int i = 0; i < a.length && i < n; i++) {
+            if (a[i] == 0)
+                continue;
+            for (int j = 0; j < b.length && i + j < n; j++)
+                c[i + j] += a[i] * b[j];
+        }
+        return c;
+    }
+
+    // Find the root of a union-find set, compressing the path as we go.
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // Counts the components in a range, splitting the range across the pool.
+    private static class CountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private Component[] comps;
+        private int lo, hi;
+
+        CountTask(Component[] comps, int lo, int hi) {
+            this.comps = comps;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo == 1) {
+                comps[lo].count();
+            } else if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new CountTask(comps, lo, mid), new CountTask(comps, mid, hi));
+            }
+        }
+    }
+
+    // One connected group of frontier cells and the numbers touching them.
+    private static class Component {
+        // The numbers: which cells each touches, and how many mines it needs.
+        private ArrayList<int[]> touches = new ArrayList<int[]>();
+        private ArrayList<Integer> needs = new ArrayList<Integer>();
+
+        // The component's cells, in the order they are counted.
+        private int[] cells;
+
+        // ways[m] = number of placements with m mines in the component.
+        private double[] ways;
+
+        // mineWays[j][m] = number of those placements with a mine in cell j.
+        private double[][] mineWays;
+
+        void addConstraint(int[] cellsTouched, int mines) {
+            touches.add(cellsTouched);
+            needs.add(mines);
+        }
+
+        // Count the placements, going through the cells one at a time. The
+        // state after each cell is how many mines each number still needs.
+        void count() {
+            // Order cells so each number's cells come close together, by
+            // going through the numbers in turn.
+            HashMap<Integer, Integer> pos = new HashMap<Integer, Integer>();
+            ArrayList<Integer> order = new ArrayList<Integer>();
+            for (int[] t : touches) {
+                for (int cell : t) {
+                    if (!pos.containsKey(cell)) {
+                        pos.put(cell, order.size());
+                        order.add(cell);
+                    }
+                }
+            }
+            int n = order.size();
+            int numNumbers = touches.size();
+            cells = new int[n];
+            for (int j = 0; j < n; j++)
+                cells[j] = order.get(j);
+
+            // For each cell, which numbers touch it and which numbers have it
+            // as their last cell (so they must be satisfied after it).
+            int[][] touchedBy = new int[n][];
+            int[][] closedBy = new int[n][];
+            int[] touchCount = new int[n];
+            int[] closeCount = new int[n];
+            int[] last = new int[numNumbers];
+            for (int c = 0; c < numNumbers; c++) {
+                for (int cell : touches.get(c)) {
+                    int j = pos.get(cell);
+                    touchCount[j]++;
+                    last[c] = Math.max(last[c], j);
+                }
+                closeCount[last[c]]++;
+            }
+            for (int j = 0; j < n; j++) {
+                touchedBy[j] = new int[touchCount[j]];
+                closedBy[j] = new int[closeCount[j]];
+                touchCount[j] = 0;
+                closeCount[j] = 0;
+            }
+            for (int c = 0; c < numNumbers; c++) {
+                for (int cell : touches.get(c)) {
+                    int j = pos.get(cell);
+                    touchedBy[j][touchCount[j]++] = c;
+                }
+                closedBy[last[c]][closeCount[last[c]]++] = c;
+            }
+
+            // Forward: reachable states before each cell, with the ways to
+            // reach each, by number of mines so far.
+            ArrayList<HashMap<ByteBuffer, double[]>> forward = new ArrayList<HashMap<ByteBuffer, double[]>>();
+            byte[] start = new byte[numNumbers];
+            for (int c = 0; c < numNumbers; c++)
+                start[c] = (byte)(int)needs.get(c);
+            HashMap<ByteBuffer, double[]> layer = new HashMap<ByteBuffer, double[]>();
+            layer.put(ByteBuffer.wrap(start), new double[] { 1 });
+            forward.add(layer);
+            // The ways in forward layer j are the real ways divided by
+            // exp(forwardScale[j]), and likewise for the backward layers.
+            double[] forwardScale = new double[n + 1];
+            double[] backScale = new double[n + 1];
+            for (int j = 0; j < n; j++) {
+                HashMap<ByteBuffer, double[]> next = new HashMap<ByteBuffer, double[]>();
+                for (java.util.Map.Entry<ByteBuffer, double[]> e : layer.entrySet()) {
+                    for (int mine = 0; mine <= 1; mine++) {
+                        byte[] s = step(e.getKey(), touchedBy[j], closedBy[j], mine);
+                        if (s != null)
+                            addShifted(next, ByteBuffer.wrap(s), e.getValue(), mine);
+                    }
+                }
+                forwardScale[j + 1] = forwardScale[j] + normalize(next);
+                forward.add(next);
+                layer = next;
+            }
+
+            // Backward: for each state before each cell, the ways to finish
+            // from there, by number of mines from there on.
+            HashMap<ByteBuffer, double[]> back = new HashMap<ByteBuffer, double[]>();
+            for (ByteBuffer s : forward.get(n).keySet())
+                back.put(s, new double[] { 1 });
+            mineWays = new double[n][];
+            for (int j = n - 1; j >= 0; j--) {
+                HashMap<ByteBuffer, double[]> prev = new HashMap<ByteBuffer, double[]>();
+                double[] cellMine = new double[] { 0 };
+                for (java.util.Map.Entry<ByteBuffer, double[]> e : forward.get(j).entrySet()) {
+                    double[] finish = new double[] { 0 };
+                    for (int mine = 0; mine <= 1; mine++) {
+                        byte[] s = step(e.getKey(), touchedBy[j], closedBy[j], mine);
+                        if (s == null)
+                            continue;
+                        double[] rest = back.get(ByteBuffer.wrap(s));
+                        if (rest == null)
+                            continue; // a dead end
+                        double[] shifted = shift(rest, mine);
+                        finish = add(finish, shifted);
+                        if (mine == 1)
+                            cellMine = add(cellMine, multiply(e.getValue(), shifted, Integer.MAX_VALUE - 1));
+                    }
+                    if (finish.length > 1 || finish[0] != 0)
+                        prev.put(e.getKey(), finish);
+                }
+                mineWays[j] = cellMine;
+                backScale[j] = backScale[j + 1] + normalize(prev);
+                back = prev;
+            }
+            double[] total = back.get(ByteBuffer.wrap(start));
+            ways = (total != null) ? total : new double[] { 0 };
+
+            // Scale the ways so the largest is 1, and put each cell's ways
+            // with a mine on the same scale.
+            double max = 0;
+            for (double w : ways)
+                max = Math.max(max, w);
+            if (max == 0)
+                return;
+            for (int m = 0; m < ways.length; m++)
+                ways[m] /= max;
+            for (int j = 0; j < n; j++) {
+                double scale = forwardScale[j] + backScale[j + 1] - backScale[0] - Math.log(max);
+                for (int m = 0; m < mineWays[j].length; m++) {
+                    if (mineWays[j][m] > 0)
+                        mineWays[j][m] = Math.exp(Math.log(mineWays[j][m]) + scale);
+                }
+            }
+        }
+
+        // Divide every count in a layer by the largest one, so they stay in
+        // range however many cells have been counted.
+        // Returns the log of what they were divided by.
+        private static double normalize(HashMap<ByteBuffer, double[]> layer) {
+            double max = 0;
+            for (double[] ways : layer.values()) {
+                for (double w : ways)
+                    max = Math.max(max, w);
+            }
+            if (max == 0 || max == 1)
+                return 0;
+            for (double[] ways : layer.values()) {
+                for (int m = 0; m < ways.length; m++)
+                    ways[m] /= max;
+            }
+            return Math.log(max);
+        }
+
+        // Get the state after deciding one cell, or null if that breaks a
+        // number: one needs a negative number of mines, or one that is done
+        // still needs some.
+        private static byte[] step(ByteBuffer state, int[] touched, int[] closed, int mine) {
+            byte[] s = state.array();
+            if (mine == 1) {
+                s = s.clone();
+                for (int c : touched) {
+                    if (--s[c] < 0)
+                        return null;
+                }
+            }
+            for (int c : closed) {
+                if (s[c] != 0)
+                    return null;
+            }
+            return s;
+        }
+
+        // Add ways, shifted up by the given number of mines, into a layer.
+        private static void addShifted(HashMap<ByteBuffer, double[]> layer, ByteBuffer key, double[] ways, int shift) {
+            double[] old = layer.get(key);
+            layer.put(key, add(old == null ? new double[] { 0 } : old, shift(ways, shift)));
+        }
+
+        private static double[] shift(double[] a, int by) {
+            if (by == 0)
+                return a;
+            double[] b = new double[a.length + by];
+            System.arraycopy(a, 0, b, by, a.length);
+            return b;
+        }
+
+        private static double[] add(double[] a, double[] b) {
+            double[] c = Arrays.copyOf(a.length >= b.length ? a : b, Math.max(a.length, b.length));
+            double[] other = (a.length >= b.length) ? b : a;
+            for (int i = 0; i < other.length; i++)
+                c[i] += other[i];
+            return c;
+        }
+    }
+
+    /**
+     * A main() function, which checks compute() against counting every
+     * placement of the mines one by one, on a number of small random boards
+     * with the first cell revealed.
+     */
+    public static void main(String args[]) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1234;
+        int trials = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int rows = 5, cols = 6, mines = 6;
+        double worst = 0;
+        int skipped = 0;
+        for (int t = 0; t < trials; t++) {
+            java.util.Random rng = new java.util.Random(seed + t);
+            Board board = new Board(rows, cols);
+            int first = rng.nextInt(rows * cols);
+            MinePlacer.deploy(board, mines, rng, -1);
+            if (board.isMine(first / cols, first % cols)) {
+                skipped++;
+                continue;
+            }
+            board.reveal(first / cols, first % cols);
+            // Reveal one more safe cell, so there are more numbers to agree
+            // with.
+            int second = rng.nextInt(rows * cols);
+            if (!board.isMine(second / cols, second % cols))
+                board.reveal(second / cols, second % cols);
+
+            MineProbabilities probs = new MineProbabilities(board, new Solver(board));
+            probs.compute();
+            double[] exact = bruteForce(board, mines);
+            for (int i = 0; i < board.getNumCells(); i++)
+                worst = Math.max(worst, Math.abs(probs.getProbability(i) - exact[i]));
+        }
+        StdOut.printf("%d boards of %dx%d with %d mines checked, %d skipped (first cell was a mine)\n",
+                trials - skipped, rows, cols, mines, skipped);
+        StdOut.printf("Largest difference from brute force: %.3g %s\n", worst, worst < 1e-9 ? "(ok)" : "(WRONG)");
+    }
+
+    // Get the chance of a mine in each cell by trying every way of putting
+    // the mines in the hidden cells, and keeping the ways that agree with
+    // every revealed number.
+    private static double[] bruteForce(Board board, int mines) {
+        int n = board.getNumCells();
+        int[] hidden = new int[n];
+        int numHidden = 0;
+        for (int i = 0; i < n; i++) {
+            if ((board.getState(i) & Board.REVEALED) == 0)
+                hidden[numHidden++] = i;
+        }
+        boolean[] mine = new boolean[n];
+        double[] hits = new double[n];
+        double total = place(board, hidden, numHidden, 0, mines, mine, hits);
+        for (int i = 0; i < n; i++)
+            hits[i] = total > 0 ? hits[i] / total : 0;
+        return hits;
+    }
+
+    // Put the given number of mines in the hidden cells from k on, every way
+    // there is, adding each way that matches the numbers to hits. Returns the
+    // number of ways that matched.
+    private static double place(Board board, int[] hidden, int numHidden, int k, int left,
+            boolean[] mine, double[] hits) {
+        if (left == 0) {
+            if (!matches(board, mine))
+                return 0;
+            for (int j = 0; j < numHidden; j++) {
+                if (mine[hidden[j]])
+                    hits[hidden[j]]++;
+            }
+            return 1;
+        }
+        if (numHidden - k < left)
+            return 0;
+        mine[hidden[k]] = true;
+        double ways = place(board, hidden, numHidden, k + 1, left - 1, mine, hits);
+        mine[hidden[k]] = false;
+        return ways + place(board, hidden, numHidden, k + 1, left, mine, hits);
+    }
+
+    // Check that every revealed number counts the given mines around it.
+    private static boolean matches(Board board, boolean[] mine) {
+        int rows = board.getNumRows(), cols = board.getNumCols();
+        for (int i = 0; i < board.getNumCells(); i++) {
+            int state = board.getState(i);
+            if ((state & Board.REVEALED) == 0)
+                continue;
+            int row = i / cols, col = i % cols, count = 0;
+            for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+                for (int c = Math.max(col - 1, 0); c <= Math.min(col + 1, cols - 1); c++) {
+                    if (mine[r * cols + c])
+                        count++;
+                }
+            }
+            if (count != (state & Board.COUNT_MASK))
+                return false;
+        }
+        return true;
+    }
+
+}
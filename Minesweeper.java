@@ -12,6 +12,20 @@
  *
  *  Example: java Minesweeper 1234 # This repeats the game with seed 1234
  *
+ *  Example: java Minesweeper 1234 1000 1000 # A 1000x1000 marathon board
+ *
+ *  Example: java Minesweeper 1234 30 40 250 # Custom level with 250 mines
+ *
+ *  Example: java Minesweeper 1234 30 40 90% # Custom level, 90% mines
+ *
+ *  Example: java Minesweeper 1234 noguess # A board that needs no guessing
+ *
+ *  Example: java Minesweeper resume # Carry on with the game saved on quit
+ *
+ *  Example: java Minesweeper quiet # Log moves to game.log only, not here
+ *
+ *  Example: java Minesweeper 1234 endless # A board that never ends
+ *
  *----------------------------------------------------------------*/
 
 public class Minesweeper {
@@ -20,10 +34,51 @@ public class Minesweeper {
     /**
      * The main() program for the minesweeper game. It takes one optional
      * parameter, an integer seed used for randomizing the mines. If you use the
-     * same seed twice, you should get the exact same deployment of mines.
+     * same seed twice, you should get the exact same deployment of mines. The
+     * seed can be followed by the number of rows and columns for the board, if
+     * you want a board other than the usual size, and then by the number of
+     * mines (e.g. 250) or percent of cells with mines (e.g. 90%) to use when
+     * the "custom" level is chosen. The word "noguess" can be added anywhere
+     * to get a board that can be solved without guessing. The word "resume"
+     * carries on with the game that was saved when the user last quit. The word
+     * "endless" plays on a board with no edges, see EndlessGame. The word
+     * "quiet" stops game events being printed; they still go to game.log.
      */
     public static void main(String args[]) {
 
+        // Pull out the "noguess", "resume", "endless", and "quiet" options,
+        // leaving the other arguments in order.
+        boolean noGuess = false;
+        boolean resume = false;
+        boolean endless = false;
+        java.util.ArrayList<String> rest = new java.util.ArrayList<String>();
+        for (String arg : args) {
+            if (arg.equalsIgnoreCase("noguess"))
+                noGuess = true;
+            else if (arg.equalsIgnoreCase("resume"))
+                resume = true;
+            else if (arg.equalsIgnoreCase("endless"))
+                endless = true;
+            else if (arg.equalsIgnoreCase("quiet"))
+                EventLog.setEcho(false);
+            else
+                rest.add(arg);
+        }
+        args = rest.toArray(new String[0]);
+
+        // Carry on with a saved game, if asked to. The mines are already in
+        // place, so there is nothing else to set up.
+        if (resume) {
+            try {
+                Game game = GameSave.read(GameSave.FILENAME);
+                StdOut.println("Resuming your saved game.");
+                game.showAndWait();
+                return;
+            } catch (java.io.IOException e) {
+                StdOut.println("Can't resume a saved game: " + e.getMessage());
+            }
+        }
+
         // Print a customized welcome message.
         String username = System.getenv("USER");
         StdOut.println("--=== Welcome to Minesweeper, " + username + "! ===--");
@@ -43,10 +98,25 @@ public class Minesweeper {
             System.out.println("You are re-playing the game with seed: " + seed);
         }
 
+        // The board size is optional too, the usual size is used otherwise.
+        int rows = Game.NUM_ROWS;
+        int cols = Game.NUM_COLS;
+        if (args.length >= 3) {
+            rows = Integer.parseInt(args[1]);
+            cols = Integer.parseInt(args[2]);
+            System.out.println("The board is " + rows + " rows by " + cols + " columns.");
+        }
+
+        // The mines for the custom level are optional as well. If not given, a
+        // random number of mines is used.
+        int customMines = -1;
+        if (args.length >= 4)
+            customMines = parseMines(args[3], rows * cols);
+
         // Create the "splash" title screen, and wait for the user to make a
         // selection.
         TitleScreen t = new TitleScreen();
-        t.showAndAnimate(1.0);
+        t.showAndWait();
 
         // If the user wants to quit, do so.
         String selection = t.getSelection();
@@ -57,23 +127,65 @@ public class Minesweeper {
 
         StdRandom.setSeed(seed);
 
+        int mines = getLevelMines(selection);
+        if (mines < 0 && customMines >= 0)
+            mines = customMines;
+        else if (mines < 0)
+            mines = StdRandom.uniform(5, 100);
+
+        // An endless game has the same fraction of mines as this board would,
+        // but never so few that an open region could go on forever.
+        if (endless) {
+            double density = Math.min(Math.max((double)mines / (rows * cols), EndlessBoard.MIN_DENSITY), 0.9);
+            System.out.printf("This board is endless, with %.0f%% mines.\n", 100 * density);
+            new EndlessGame(seed, density).showAndWait();
+            return;
+        }
+
         // Create a game, and deploy the correct number of mines.
-        Game game = new Game(username, selection);
+        Game game = new Game(username, selection, rows, cols);
+        game.setSeed(seed);
 
-        StdRandom.setSeed(seed);
+        // Small boards may not have room for all of them. No-guess boards also
+        // keep the cells around the first click clear.
+        if (noGuess) {
+            System.out.println("This board can be solved without guessing.");
+            game.deployMinesNoGuess(Math.min(mines, Math.max(rows * cols - 9, 0)), seed);
+        } else {
+            // Start the mines from the seed itself, whatever was drawn above,
+            // so a Replay of this game can deploy the same ones.
+            StdRandom.setSeed(seed);
+            game.deployMines(Math.min(mines, rows * cols));
+        }
+
+        // Wait for the user to play the game. The game draws itself again when
+        // something changes, including the timer display, so no animation is
+        // needed.
+        game.showAndWait();
+    }
 
-        if (selection.equals("hard"))
-            game.deployMines(100);
-        else if (selection.equals("medium"))
-            game.deployMines(20);
-        else if (selection.equals("easy"))
-            game.deployMines(5);
-        else
-            game.deployMines(StdRandom.uniform(5, 100));
-
-        // Wait for the user to play the game. We turn on animation so the timer
-        // display is updated properly.
-        game.showAndAnimate(10);
+    /**
+     * Get the number of mines used at a difficulty level, or -1 if the level
+     * doesn't have a set number, like "custom".
+     * @param level "easy", "medium", "hard", or something else.
+     */
+    public static int getLevelMines(String level) {
+        switch (level) {
+            case "hard": return 100;
+            case "medium": return 20;
+            case "easy": return 5;
+            default: return -1;
+        }
+    }
+
+    // Parse a custom mine count, either a number of mines like "250" or a
+    // percent of the cells like "90%".
+    private static int parseMines(String spec, int cells) {
+        if (spec.endsWith("%")) {
+            double percent = Double.parseDouble(spec.substring(0, spec.length() - 1));
+            return MinePlacer.minesForDensity(cells, percent);
+        }
+        return Integer.parseInt(spec);
     }
 
 }
@@ -0,0 +1,110 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  NoGuessGenerator makes boards that can be solved from the first
+ *  click without ever having to guess.
+ *----------------------------------------------------------------*/
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <i>NoGuessGenerator</i> deploys mines so that a board can be solved by logic
+ * alone, starting from a given first click. It tries numbered candidate
+ * layouts, each one made from its own random numbers seeded by the game seed
+ * and the candidate number. A candidate is accepted if the Solver, revealing
+ * only cells it has proven safe, can clear the whole board.
+ *
+ * Candidates are tried on all cores at once. Threads take candidate numbers
+ * in increasing order and stop once their next number is above the best
+ * solvable candidate found so far, so every candidate below the winner has
+ * been tried. The winner is always the lowest-numbered solvable candidate,
+ * and the same seed always gives the same board no matter how many cores
+ * there are or how the threads happen to run.
+ */
+public class NoGuessGenerator {
+
+    /**
+     * The most candidates to try before giving up.
+     */
+    public static final int MAX_CANDIDATES = 20000;
+
+    /**
+     * Deploy mines on an empty board so that it can be solved without guessing
+     * when the first click is at the given row and column. The 3x3 block
+     * around the first click never has mines.
+     * @param board the board, which must not have any mines yet.
+     * @param mines the number of mines to deploy.
+     * @param seed the game seed.
+     * @param row the row of the first click.
+     * @param col the column of the first click.
+     * @return the number of the candidate that was used, or -1 if no solvable
+     * candidate was found, in which case the board is left empty.
+     */
+    public static int generate(Board board, int mines, long seed, int row, int col) {
+        int rows = board.getNumRows();
+        int cols = board.getNumCols();
+        int first = board.index(row, col);
+
+        AtomicInteger next = new AtomicInteger(0);
+        AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int numWorkers = Math.max(1, pool.getParallelism());
+        ForkJoinTask<?>[] workers = new ForkJoinTask<?>[numWorkers];
+        for (int w = 0; w < numWorkers; w++) {
+            workers[w] = pool.submit(() -> {
+                Board candidate = new Board(rows, cols);
+                while (true) {
+                    int k = next.getAndIncrement();
+                    if (k >= MAX_CANDIDATES || k > best.get())
+                        return;
+                    candidate.reset();
+                    MinePlacer.deploy(candidate, mines, candidateRandom(seed, k), first);
+                    if (isSolvable(candidate, row, col))
+                        best.accumulateAndGet(k, Math::min);
+                }
+            });
+        }
+        for (ForkJoinTask<?> worker : workers)
+            worker.join();
+
+        int winner = best.get();
+        if (winner == Integer.MAX_VALUE)
+            return -1;
+        // Make the winning layout again on the real board.
+        MinePlacer.deploy(board, mines, candidateRandom(seed, winner), first);
+        return winner;
+    }
+
+    /**
+     * Check whether a board can be cleared from the given first click by only
+     * ever revealing cells the Solver has proven safe. This reveals cells on
+     * the board as it goes.
+     */
+    public static boolean isSolvable(Board board, int row, int col) {
+        board.reveal(row, col);
+        Solver solver = new Solver(board);
+        while (!board.isWon() && !board.isLost()) {
+            if (!solver.solve())
+                return false; // would have to guess
+            int cols = board.getNumCols();
+            for (int k = 0; k < solver.getNumSafe(); k++) {
+                int i = solver.getSafe(k);
+                board.reveal(i / cols, i % cols);
+            }
+        }
+        return board.isWon();
+    }
+
+    // Get the random numbers for one candidate, mixing the seed and candidate
+    // number so nearby seeds and candidates don't give related layouts.
+    private static Random candidateRandom(long seed, int k) {
+        long h = seed * 0x9E3779B97F4A7C15L + k;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return new Random(h ^ (h >>> 31));
+    }
+
+}
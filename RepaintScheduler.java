@@ -0,0 +1,163 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  RepaintScheduler decides when a window needs to be drawn again,
+ *  so an idle window doesn't redraw itself over and over.
+ *----------------------------------------------------------------*/
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A <i>RepaintScheduler</i> draws a window only when something has changed,
+ * instead of a fixed number of times a second. Anything that changes what is
+ * on the screen, like a click or a key press, calls request(). A background
+ * thread then draws one frame. Requests made before that frame starts are
+ * all handled by it, and frames are at least 1/maxFramesPerSecond apart, so a
+ * burst of changes costs one frame rather than one each.
+ *
+ * Things that change over time, like the Timer's display, are handled by a
+ * ticker: a function giving the nanoseconds until the next change, or -1 if
+ * nothing will change by itself. The thread sleeps until then, or until the
+ * next request, whichever comes first. When nothing is happening it sleeps
+ * for good, and the window uses no CPU at all.
+ */
+public class RepaintScheduler {
+
+    // Draws a frame.
+    private final Runnable repaint;
+
+    // Least time between frames, in nanoseconds.
+    private final long minFrameNanos;
+
+    // Gives the nanoseconds until the next change over time, or -1.
+    private volatile LongSupplier ticker;
+
+    // Whether a frame has been requested and not yet started.
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+
+    // The thread drawing frames, or null if it isn't running.
+    private volatile Thread thread;
+
+    // Number of frames drawn so far.
+    private volatile long numFrames;
+
+    // System.nanoTime() of the first request since the last frame started.
+    private volatile long requestedAt;
+
+    // Nanoseconds from the first request to the start of the frame being
+    // drawn, or -1 if it wasn't requested.
+    private volatile long frameLatency = -1;
+
+    /**
+     * Constructor: Initializes a scheduler. Nothing is drawn until start() is
+     * called.
+     * @param repaint draws one frame, e.g. a window's repaint().
+     * @param maxFramesPerSecond the most frames to draw in one second.
+     */
+    public RepaintScheduler(Runnable repaint, double maxFramesPerSecond) {
+        this.repaint = repaint;
+        this.minFrameNanos = (long)(1e9 / maxFramesPerSecond);
+    }
+
+    /**
+     * Set the function giving the nanoseconds until the next thing changes on
+     * its own, or -1 if nothing will.
+     */
+    public void setTicker(LongSupplier ticker) {
+        this.ticker = ticker;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Ask for a frame to be drawn soon. This never waits, and can be called
+     * from any thread.
+     */
+    public void request() {
+        if (pending.get())
+            return;
+        // Set the time first, so the frame thread can't see the request
+        // without it.
+        requestedAt = System.nanoTime();
+        if (pending.compareAndSet(false, true))
+            LockSupport.unpark(thread);
+    }
+
+    /**
+     * Get the nanoseconds from the first request since the last frame to the
+     * start of the frame being drawn now, or -1 if this frame is for a tick
+     * and wasn't requested. This is meant to be called while drawing.
+     */
+    public long getFrameLatencyNanos() {
+        return frameLatency;
+    }
+
+    /**
+     * Get the number of frames drawn so far.
+     */
+    public long getNumFrames() {
+        return numFrames;
+    }
+
+    /**
+     * Start drawing frames when asked. The thread is a daemon thread, so it
+     * doesn't keep the program running after the window closes.
+     */
+    public synchronized void start() {
+        if (thread != null)
+            return;
+        Thread t = new Thread(this::run, "repaint-scheduler");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    /**
+     * Stop drawing frames.
+     */
+    public synchronized void stop() {
+        Thread t = thread;
+        thread = null;
+        LockSupport.unpark(t);
+    }
+
+    // Wait for requests and ticks, and draw a frame for each batch of them.
+    private void run() {
+        Thread self = Thread.currentThread();
+        long lastFrame = System.nanoTime() - minFrameNanos;
+        boolean ticking = false; // whether tickAt is set
+        long tickAt = 0;         // System.nanoTime() of the next tick
+        while (thread == self) {
+            long now = System.nanoTime();
+            if (!pending.get()) {
+                if (!ticking) {
+                    LongSupplier t = ticker;
+                    long wait = t == null ? -1 : t.getAsLong();
+                    if (wait < 0) {
+                        LockSupport.park(this);
+                        continue; // woken by a request, or for no reason
+                    }
+                    ticking = true;
+                    tickAt = now + wait;
+                }
+                if (now - tickAt < 0) {
+                    LockSupport.parkNanos(this, tickAt - now);
+                    continue;
+                }
+            }
+            // Keep frames apart. Requests made while waiting here are
+            // handled by this frame too.
+            if (now - lastFrame < minFrameNanos) {
+                LockSupport.parkNanos(this, lastFrame + minFrameNanos - now);
+                continue;
+            }
+            frameLatency = pending.getAndSet(false) ? Math.max(now - requestedAt, 0) : -1;
+            ticking = false;
+            lastFrame = now;
+            repaint.run();
+            numFrames++;
+        }
+    }
+
+}
@@ -0,0 +1,495 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  Replay records the moves of a game, and plays them back either
+ *  on the screen or headless as fast as possible.
+ *
+ *  You can check replays headless using:
+ *    java Replay last.replay [more.replay ...]
+ *  or watch one in real time using:
+ *    java Replay last.replay gui
+ *----------------------------------------------------------------*/
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * A <i>Replay</i> holds everything needed to play a game over again: the seed
+ * and settings the board was made with, and each click as a row, a column, a
+ * button, and the time in nanoseconds since the game was set up. Boards are
+ * made from the seed the same way Minesweeper makes them, so the moves always
+ * land on the same mines.
+ *
+ * Moves are packed into a byte array as they are recorded, two varints each:
+ * first the change in cell index from the move before (zigzag encoded so
+ * small steps either way are small) shifted left two bits, with the button in
+ * the low two bits; then the nanoseconds since the move before. A typical
+ * click takes four to six bytes.
+ *
+ * File format: int magic, then varints for the version, seed (zigzag), rows,
+ * cols, mines, and 1 for a no-guess game or 0 otherwise, then the difficulty
+ * and username as a varint length and UTF-8 bytes, then a varint number of
+ * moves, then the moves as above.
+ */
+public class Replay {
+
+    /**
+     * The file the last finished game is saved in.
+     */
+    public static final String FILENAME = "last.replay";
+
+    /**
+     * Button codes, as stored in a replay.
+     */
+    public static final int LEFT = 0, MIDDLE = 1, RIGHT = 2;
+
+    private static final String[] BUTTONS = { "left", "middle", "right" };
+
+    private static final int MAGIC = 0x4D535231; // "MSR1"
+    private static final int VERSION = 1;
+
+    // How the board is made.
+    private final long seed;
+    private final int rows, cols, mines;
+    private final boolean noGuess;
+    private final String difficulty, username;
+
+    // The moves, packed as described above. The first length bytes are used.
+    private byte[] moves = new byte[64];
+    private int length;
+    private int numMoves;
+
+    // For recording: when recording started, and the cell and time of the
+    // last move, which the next move is stored relative to.
+    private long startNanos = System.nanoTime();
+    private int lastCell;
+    private long lastNanos;
+
+    /**
+     * Constructor: Initializes an empty replay for a game made with the given
+     * settings. Recording times are measured from now.
+     * @param seed the seed the board is made from.
+     * @param rows the number of cells tall the board is.
+     * @param cols the number of cells wide the board is.
+     * @param mines the number of mines deployed.
+     * @param noGuess true if the mines are deployed on the first click so the
+     * board can be solved without guessing.
+     * @param difficulty the difficulty level.
+     * @param username the name of the user playing.
+     */
+    public Replay(long seed, int rows, int cols, int mines, boolean noGuess,
+            String difficulty, String username) {
+        this.seed = seed;
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.noGuess = noGuess;
+        this.difficulty = difficulty == null ? "" : difficulty;
+        this.username = username == null ? "" : username;
+    }
+
+    /**
+     * Record a click, timed from when the replay was made.
+     * @param button either "left", "middle", or "right".
+     */
+    public void record(int row, int col, String button) {
+        record(row, col, buttonCode(button), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Get the code for a button name.
+     * @param button either "left", "middle", or "right".
+     * @return LEFT, MIDDLE, or RIGHT.
+     * @throws IllegalArgumentException if the name isn't one of those.
+     */
+    public static int buttonCode(String button) {
+        switch (button) {
+            case "left": return LEFT;
+            case "middle": return MIDDLE;
+            case "right": return RIGHT;
+            default: throw new IllegalArgumentException("unknown button " + button);
+        }
+    }
+
+    /**
+     * Get the name of a button code.
+     * @param code LEFT, MIDDLE, or RIGHT.
+     * @return "left", "middle", or "right".
+     */
+    public static String buttonName(int code) {
+        return BUTTONS[Math.min(Math.max(code, LEFT), RIGHT)];
+    }
+
+    /**
+     * Record a click at the given time.
+     * @param button one of LEFT, MIDDLE, or RIGHT.
+     * @param nanos the time in nanoseconds since the game was set up. Times
+     * earlier than the last move's are recorded as the same time.
+     */
+    public void record(int row, int col, int button, long nanos) {
+        int cell = row * cols + col;
+        int step = cell - lastCell;
+        if (moves.length - length < 20)
+            moves = Arrays.copyOf(moves, 2 * moves.length);
+        putVarint(((long)((step << 1) ^ (step >> 31)) & 0xFFFFFFFFL) << 2 | (button & 3));
+        putVarint(Math.max(nanos - lastNanos, 0));
+        lastCell = cell;
+        lastNanos = Math.max(nanos, lastNanos);
+        numMoves++;
+    }
+
+    /**
+     * Get the number of moves recorded.
+     */
+    public int getNumMoves() {
+        return numMoves;
+    }
+
+    /**
+     * Get the time of the last move, in nanoseconds since the game was set up.
+     */
+    public long getDurationNanos() {
+        return lastNanos;
+    }
+
+    /**
+     * Get the seed the board is made from.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the difficulty level of the game.
+     */
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Get the name of the user who played the game.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Make the board this game was played on, before any moves. For no-guess
+     * games the mines are deployed on the first move instead, like in Game.
+     */
+    public Board newBoard() {
+        Board board = new Board(rows, cols);
+        if (!noGuess) {
+            StdRandom.setSeed(seed);
+            board.deployMines(mines);
+        }
+        return board;
+    }
+
+    /**
+     * Play the moves back on a fresh board as fast as possible, without a
+     * display, following the same rules as Game.click(). Playback stops when
+     * a mine is revealed.
+     * @return the board after the moves, e.g. to check isWon().
+     */
+    public Board play() {
+        Board board = newBoard();
+        boolean pending = noGuess;
+        Cursor move = new Cursor(moves);
+        for (int k = 0; k < numMoves && !board.isWon() && !board.isLost(); k++) {
+            move.next();
+            int cell = move.cell, button = move.button;
+            if (cell < 0 || cell >= board.getNumCells())
+                continue;
+            int row = cell / cols, col = cell - row * cols;
+            if (button == RIGHT) {
+                board.toggleFlag(row, col);
+                continue;
+            }
+            if (button == MIDDLE) {
+                board.chord(row, col);
+                continue;
+            }
+            if (pending) {
+                pending = false;
+                if (NoGuessGenerator.generate(board, mines, seed, row, col) < 0)
+                    MinePlacer.deploy(board, mines, new java.util.Random(seed), cell);
+            }
+            board.reveal(row, col);
+        }
+        return board;
+    }
+
+    /**
+     * Make a Game window set up for this replay, ready to be played back on
+     * with playInBackground().
+     */
+    public Game newGame() {
+        Game game = new Game(username, difficulty, rows, cols);
+        game.setSeed(seed);
+        if (noGuess) {
+            game.deployMinesNoGuess(mines, seed);
+        } else {
+            StdRandom.setSeed(seed);
+            game.deployMines(mines);
+        }
+        return game;
+    }
+
+    /**
+     * Play the moves back on a game in real time, from a separate thread, so
+     * each click happens as long after the call as it did after the original
+     * game was set up.
+     * @return the thread doing the playback.
+     */
+    public Thread playInBackground(Game game) {
+        Thread player = new Thread(() -> {
+            long start = System.nanoTime();
+            Cursor move = new Cursor(moves);
+            for (int k = 0; k < numMoves; k++) {
+                move.next();
+                long wait = start + move.nanos - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        Thread.sleep(wait / 1000000, (int)(wait % 1000000));
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                game.click(move.cell / cols, move.cell % cols, buttonName(move.button));
+            }
+        }, "replay-player");
+        player.setDaemon(true);
+        player.start();
+        return player;
+    }
+
+    /**
+     * Get the replay as bytes, in the file format described above.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 64);
+        byte[] header = new byte[4];
+        header[0] = (byte)(MAGIC >>> 24);
+        header[1] = (byte)(MAGIC >>> 16);
+        header[2] = (byte)(MAGIC >>> 8);
+        header[3] = (byte)MAGIC;
+        out.write(header, 0, 4);
+        writeVarint(out, VERSION);
+        writeVarint(out, (seed << 1) ^ (seed >> 63));
+        writeVarint(out, rows);
+        writeVarint(out, cols);
+        writeVarint(out, mines);
+        writeVarint(out, noGuess ? 1 : 0);
+        writeString(out, difficulty);
+        writeString(out, username);
+        writeVarint(out, numMoves);
+        out.write(moves, 0, length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Read a replay from bytes made by toBytes().
+     * @throws IOException if the bytes aren't a replay.
+     */
+    public static Replay fromBytes(byte[] bytes) throws IOException {
+        if (bytes.length < 4 || ((bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16
+                    | (bytes[2] & 0xFF) << 8 | (bytes[3] & 0xFF)) != MAGIC)
+            throw new IOException("not a replay");
+        int[] pos = { 4 };
+        try {
+            if (readVarint(bytes, pos) != VERSION)
+                throw new IOException("replay was made by a different version");
+            long z = readVarint(bytes, pos);
+            long seed = (z >>> 1) ^ -(z & 1);
+            long rows = readVarint(bytes, pos);
+            long cols = readVarint(bytes, pos);
+            long mines = readVarint(bytes, pos);
+            boolean noGuess = readVarint(bytes, pos) != 0;
+            String difficulty = readString(bytes, pos);
+            String username = readString(bytes, pos);
+            long numMoves = readVarint(bytes, pos);
+            if (rows <= 0 || cols <= 0 || rows * cols > Integer.MAX_VALUE
+                    || mines > rows * cols || numMoves > bytes.length)
+                throw new IOException("replay is damaged");
+            Replay replay = new Replay(seed, (int)rows, (int)cols, (int)mines, noGuess, difficulty, username);
+            replay.length = bytes.length - pos[0];
+            replay.moves = Arrays.copyOfRange(bytes, pos[0], pos[0] + Math.max(replay.length, 64));
+            replay.numMoves = (int)numMoves;
+            // Check that the moves are all there, and find the last one, which
+            // more moves recorded after them would be stored relative to.
+            Cursor move = new Cursor(replay.moves);
+            for (int k = 0; k < numMoves; k++) {
+                move.next();
+                if (move.pos > replay.length)
+                    throw new IOException("replay is cut short");
+            }
+            if (move.pos != replay.length)
+                throw new IOException("replay is damaged");
+            replay.lastCell = move.cell;
+            replay.lastNanos = move.nanos;
+            return replay;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("replay is cut short");
+        }
+    }
+
+    /**
+     * Read a replay from a file.
+     */
+    public static Replay read(String filename) throws IOException {
+        return fromBytes(Files.readAllBytes(new File(filename).toPath()));
+    }
+
+    /**
+     * Write the replay to a file.
+     */
+    public void write(String filename) throws IOException {
+        Files.write(new File(filename).toPath(), toBytes());
+    }
+
+    /**
+     * Write the replay to a file from a separate thread, so the caller doesn't
+     * wait for the disk. The moves so far are copied right away.
+     * @return the thread writing the file.
+     */
+    public Thread writeInBackground(String filename) {
+        byte[] bytes = toBytes();
+        Thread writer = new Thread(() -> {
+            try {
+                Files.write(new File(filename).toPath(), bytes);
+            } catch (IOException e) {
+                StdOut.printf("Can't save replay: %s\n", e.getMessage());
+            }
+        }, "replay-saver");
+        writer.start();
+        return writer;
+    }
+
+    // Steps through packed moves, keeping track of the cell and time that
+    // each one is stored relative to.
+    private static class Cursor {
+        byte[] moves;
+        int pos;       // where the next move starts
+        int cell;      // cell index of the current move
+        long nanos;    // time of the current move
+        int button;    // button of the current move
+
+        Cursor(byte[] moves) {
+            this.moves = moves;
+        }
+
+        // Move on to the next move.
+        void next() {
+            long code = varint();
+            int zigzag = (int)(code >>> 2);
+            cell += (zigzag >>> 1) ^ -(zigzag & 1);
+            button = (int)code & 3;
+            nanos += varint();
+        }
+
+        private long varint() {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = moves[pos++];
+                v |= (long)(b & 0x7F) << shift;
+                if (b >= 0)
+                    return v;
+            }
+        }
+    }
+
+    // Append a varint to the moves: seven bits per byte, low bits first, with
+    // the top bit set on every byte but the last. There must be room.
+    private void putVarint(long v) {
+        while ((v & ~0x7FL) != 0) {
+            moves[length++] = (byte)((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        moves[length++] = (byte)v;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int)((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int)v);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, b.length);
+        out.write(b, 0, b.length);
+    }
+
+    // Read a varint at pos[0], moving pos[0] past it.
+    private static long readVarint(byte[] bytes, int[] pos) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos[0] >= bytes.length)
+                throw new IOException("replay is cut short");
+            byte b = bytes[pos[0]++];
+            v |= (long)(b & 0x7F) << shift;
+            if (b >= 0)
+                return v;
+        }
+        throw new IOException("replay is damaged");
+    }
+
+    private static String readString(byte[] bytes, int[] pos) throws IOException {
+        long n = readVarint(bytes, pos);
+        if (n > bytes.length - pos[0])
+            throw new IOException("replay is cut short");
+        String s = new String(bytes, pos[0], (int)n, StandardCharsets.UTF_8);
+        pos[0] += (int)n;
+        return s;
+    }
+
+    /**
+     * A main() function, which plays back replay files headless and says how
+     * each game ended, or shows one in real time if "gui" is given.
+     */
+    public static void main(String args[]) throws IOException {
+        boolean gui = false;
+        java.util.ArrayList<Replay> replays = new java.util.ArrayList<Replay>();
+        java.util.ArrayList<String> names = new java.util.ArrayList<String>();
+        for (String arg : args) {
+            if (arg.equalsIgnoreCase("gui")) {
+                gui = true;
+            } else {
+                replays.add(read(arg));
+                names.add(arg);
+            }
+        }
+        if (replays.isEmpty()) {
+            replays.add(read(FILENAME));
+            names.add(FILENAME);
+        }
+
+        if (gui) {
+            Replay replay = replays.get(0);
+            Game game = replay.newGame();
+            replay.playInBackground(game);
+            game.showAndWait();
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (int k = 0; k < replays.size(); k++) {
+            Replay replay = replays.get(k);
+            Board board = replay.play();
+            StdOut.printf("%s: %s %s, %d moves, %s in %.3f seconds\n", names.get(k),
+                    replay.getUsername(), replay.getDifficulty(), replay.getNumMoves(),
+                    board.isWon() ? "won" : board.isLost() ? "lost" : "unfinished",
+                    replay.getDurationNanos() / 1e9);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        StdOut.printf("Played %d replays in %.3f seconds.\n", replays.size(), seconds);
+    }
+
+}
@@ -0,0 +1,486 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  ScoreHistory keeps every score ever recorded, not just the top
+ *  few, and answers rank and percentile questions about them.
+ *
+ *  You can see the history using:
+ *    java ScoreHistory
+ *----------------------------------------------------------------*/
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A <i>ScoreHistory</i> holds the result of every won game, for each level in
+ * TopScores.LEVELS. Results are kept in a binary file of fixed-size
+ * records, in the order they were added, which is read through a memory map
+ * so only the parts that are used get loaded. Each record is 32 bytes:
+ *   byte level, 3 unused bytes, int score, long seed, long time (ms since
+ *   1970), int name id, 4 unused bytes
+ * after a 32 byte header holding a magic number, a version, and the number of
+ * records. Scores are times in milliseconds. Names are kept once each in a
+ * text file, one per line, and records hold the line number.
+ *
+ * Each level also has a sorted index file, also memory mapped, holding one
+ * long per record: the score in the high 32 bits and the record number in the
+ * low 32 bits, so sorting the longs sorts by score, and then by which came
+ * first. Rank and percentile are found by binary search. Records added since
+ * the indexes were last written are kept in small lists in memory. Once any
+ * level has MERGE_SIZE of them, every level's list is merged into its index
+ * file, so all the index files cover the same records and opening the history
+ * only has to read the records added since then. The lists are not written
+ * on close, they are made again from those records the next time.
+ *
+ * Records are added in time order (a record is never given an earlier time
+ * than the one before it), so the records from a window of time can also be
+ * found by binary search.
+ */
+public class ScoreHistory {
+
+    /**
+     * Merge records into the index files once this many for one level are
+     * waiting in memory.
+     */
+    public static final int MERGE_SIZE = 4096;
+
+    // File layout.
+    private static final int MAGIC = 0x4D534831; // "MSH1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 32;
+    private static final int INDEX_HEADER_SIZE = 16;
+
+    // One level's index: the sorted index file, and the records added since.
+    private static class Level {
+        Path file;
+        LongBuffer sorted;       // mapped entries of the index file, or null
+        long numSorted;          // number of entries in the index file
+        long covered;            // records before this are all in the file
+        long[] tail = new long[64];
+        int tailSize;
+        boolean tailSorted = true;
+    }
+
+    // The record file, mapped with room for capacity records.
+    private FileChannel channel;
+    private MappedByteBuffer records;
+    private long capacity;
+    private long numRecords;
+
+    // The names, and where each one is in the list.
+    private Path namesFile;
+    private ArrayList<String> names = new ArrayList<String>();
+    private HashMap<String, Integer> nameIds = new HashMap<String, Integer>();
+
+    private Level[] levels = new Level[TopScores.LEVELS.length];
+
+    /**
+     * Constructor: Opens the history in the given file, e.g. "scores.hist",
+     * creating it if needed. The names are kept in filename + ".names" and the
+     * indexes in filename + "." + level + ".idx".
+     */
+    public ScoreHistory(String filename) throws IOException {
+        namesFile = new File(filename + ".names").toPath();
+        if (Files.exists(namesFile)) {
+            for (String name : Files.readAllLines(namesFile, StandardCharsets.UTF_8)) {
+                nameIds.put(name, names.size());
+                names.add(name);
+            }
+        }
+
+        channel = FileChannel.open(new File(filename).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            map(1024);
+            records.putInt(0, MAGIC);
+            records.putInt(4, VERSION);
+            records.putLong(8, 0);
+        } else {
+            map((channel.size() - HEADER_SIZE) / RECORD_SIZE);
+            if (records.getInt(0) != MAGIC)
+                throw new IOException(filename + " is not a score history file");
+            if (records.getInt(4) != VERSION)
+                throw new IOException(filename + " was made by a different version");
+        }
+        numRecords = records.getLong(8);
+
+        long from = numRecords;
+        for (int k = 0; k < levels.length; k++) {
+            Level level = levels[k] = new Level();
+            level.file = new File(filename + "." + TopScores.LEVELS[k] + ".idx").toPath();
+            openIndex(level);
+            // A new history starts with an empty index for every level, so
+            // it never has to be read from the start to find the records
+            // that aren't in an index.
+            if (numRecords == 0 && level.sorted == null)
+                merge(level);
+            from = Math.min(from, level.covered);
+        }
+        // Put records that aren't in an index file yet into the lists.
+        for (long rec = from; rec < numRecords; rec++) {
+            Level level = levels[getLevelIndex(rec)];
+            if (rec >= level.covered)
+                addToTail(level, getScore(rec), rec);
+        }
+        for (Level level : levels) {
+            if (level.tailSize >= MERGE_SIZE) {
+                mergeAll();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Add a result at the current time.
+     * @return false if the level isn't one of TopScores.LEVELS or the score
+     * is negative, in which case nothing was added.
+     */
+    public boolean add(String level, long seed, int score, String name) throws IOException {
+        return add(level, seed, score, System.currentTimeMillis(), name);
+    }
+
+    /**
+     * Add a result at the given time, in milliseconds since 1970. If the time
+     * is earlier than the last record's, the last record's time is used.
+     * @return false if the level isn't one of TopScores.LEVELS or the score
+     * is negative, in which case nothing was added.
+     */
+    public boolean add(String level, long seed, int score, long time, String name) throws IOException {
+        int k = levelIndex(level);
+        if (k < 0 || score < 0)
+            return false;
+        if (numRecords > 0)
+            time = Math.max(time, getTime(numRecords - 1));
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = names.size();
+            String line = name.replace('\n', ' ') + "\n";
+            Files.write(namesFile, line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            nameIds.put(name, id);
+            names.add(name);
+        }
+        if (numRecords == capacity)
+            map(2 * capacity);
+        long rec = numRecords;
+        int pos = offset(rec);
+        records.put(pos, (byte)k);
+        records.putInt(pos + 4, score);
+        records.putLong(pos + 8, seed);
+        records.putLong(pos + 16, time);
+        records.putInt(pos + 24, id);
+        // Only count the record once it is all written.
+        numRecords++;
+        records.putLong(8, numRecords);
+
+        Level lv = levels[k];
+        addToTail(lv, score, rec);
+        if (lv.tailSize >= MERGE_SIZE)
+            mergeAll();
+        return true;
+    }
+
+    /**
+     * Get the total number of records, for all levels.
+     */
+    public long getNumRecords() {
+        return numRecords;
+    }
+
+    /**
+     * Get the number of results at a difficulty level.
+     */
+    public long getNumScores(String level) {
+        int k = levelIndex(level);
+        return k < 0 ? 0 : levels[k].numSorted + levels[k].tailSize;
+    }
+
+    /**
+     * Get where a score would rank at a difficulty level, where 1 is the best.
+     * This is one more than the number of results that are strictly better.
+     */
+    public long getRank(String level, int score) {
+        int k = levelIndex(level);
+        if (k < 0)
+            return -1;
+        Level lv = levels[k];
+        long key = (long)score << 32;
+        sortTail(lv);
+        return 1 + lowerBound(lv, key) + lowerBound(lv.tail, lv.tailSize, key);
+    }
+
+    /**
+     * Get the percent of results at a difficulty level that a score is at
+     * least as good as, from 0 to 100. Returns 100 if there are no results.
+     */
+    public double getPercentile(String level, int score) {
+        long n = getNumScores(level);
+        if (n == 0)
+            return 100.0;
+        return 100.0 * (n - (getRank(level, score) - 1)) / n;
+    }
+
+    /**
+     * Find the best results at a difficulty level that were added between two
+     * times, best first, ties in the order they were added.
+     * @param level the difficulty level.
+     * @param from the earliest time, in milliseconds since 1970.
+     * @param to the time after the latest, in milliseconds since 1970.
+     * @param out where to put the record numbers. Up to out.length are found.
+     * @return the number of record numbers put in out.
+     */
+    public int getTop(String level, long from, long to, long[] out) {
+        int k = levelIndex(level);
+        if (k < 0 || out.length == 0)
+            return 0;
+        Level lv = levels[k];
+        long first = firstRecordAtOrAfter(from);
+        long last = firstRecordAtOrAfter(to);
+        if (first >= last)
+            return 0;
+        // Either look at every record in the window, or go through the index
+        // from the best score down until enough are in the window. If the
+        // window holds a fraction f of the records, the second way looks at
+        // about n / f entries, so pick whichever is fewer.
+        long window = last - first;
+        if ((double)window * window <= (double)out.length * numRecords)
+            return topByScanning(k, first, last, out);
+        sortTail(lv);
+        int n = 0;
+        long i = 0;
+        int j = 0;
+        while (n < out.length && (i < lv.numSorted || j < lv.tailSize)) {
+            long key;
+            if (j >= lv.tailSize || (i < lv.numSorted && lv.sorted.get((int)i) < lv.tail[j]))
+                key = lv.sorted.get((int)i++);
+            else
+                key = lv.tail[j++];
+            long rec = key & 0xFFFFFFFFL;
+            if (rec >= first && rec < last)
+                out[n++] = rec;
+        }
+        return n;
+    }
+
+    /**
+     * Get the difficulty level of a record.
+     */
+    public String getLevel(long rec) {
+        return TopScores.LEVELS[getLevelIndex(rec)];
+    }
+
+    /**
+     * Get the score of a record.
+     */
+    public int getScore(long rec) {
+        return records.getInt(offset(rec) + 4);
+    }
+
+    /**
+     * Get the seed of the game a record is from.
+     */
+    public long getSeed(long rec) {
+        return records.getLong(offset(rec) + 8);
+    }
+
+    /**
+     * Get the time a record was added, in milliseconds since 1970.
+     */
+    public long getTime(long rec) {
+        return records.getLong(offset(rec) + 16);
+    }
+
+    /**
+     * Get the player name of a record.
+     */
+    public String getName(long rec) {
+        return names.get(records.getInt(offset(rec) + 24));
+    }
+
+    /**
+     * Force the records to disk and close the files. Records that aren't in
+     * an index file yet are left that way, which keeps this quick.
+     */
+    public void close() throws IOException {
+        records.force();
+        channel.close();
+    }
+
+    // Get the position of a difficulty level in TopScores.LEVELS, or -1.
+    private static int levelIndex(String level) {
+        for (int k = 0; k < TopScores.LEVELS.length; k++) {
+            if (TopScores.LEVELS[k].equals(level))
+                return k;
+        }
+        return -1;
+    }
+
+    private int getLevelIndex(long rec) {
+        return records.get(offset(rec));
+    }
+
+    // Get the position of a record in the mapped file.
+    private static int offset(long rec) {
+        return (int)(HEADER_SIZE + rec * RECORD_SIZE);
+    }
+
+    // Map the record file with room for the given number of records.
+    private void map(long numRecords) throws IOException {
+        long bytes = HEADER_SIZE + numRecords * RECORD_SIZE;
+        if (bytes > Integer.MAX_VALUE)
+            throw new IOException("score history is full");
+        records = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        capacity = numRecords;
+    }
+
+    // Binary search for the first record added at or after a time.
+    private long firstRecordAtOrAfter(long time) {
+        long lo = 0, hi = numRecords;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (getTime(mid) < time)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    // Find the best results at a level among records first to last - 1 by
+    // looking at each one, keeping the best out.length so far in order.
+    private int topByScanning(int k, long first, long last, long[] out) {
+        int n = 0;
+        for (long rec = first; rec < last; rec++) {
+            if (getLevelIndex(rec) != k)
+                continue;
+            long key = ((long)getScore(rec) << 32) | rec;
+            if (n == out.length && key >= out[n - 1])
+                continue;
+            int pos = n < out.length ? n++ : n - 1;
+            while (pos > 0 && out[pos - 1] > key) {
+                out[pos] = out[pos - 1];
+                pos--;
+            }
+            out[pos] = key;
+        }
+        for (int i = 0; i < n; i++)
+            out[i] &= 0xFFFFFFFFL;
+        return n;
+    }
+
+    // Count the index file entries below a key.
+    private static long lowerBound(Level lv, long key) {
+        long lo = 0, hi = lv.numSorted;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (lv.sorted.get((int)mid) < key)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    // Count the entries of a sorted array below a key.
+    private static int lowerBound(long[] a, int n, long key) {
+        int i = Arrays.binarySearch(a, 0, n, key);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static void addToTail(Level lv, int score, long rec) {
+        if (lv.tailSize == lv.tail.length)
+            lv.tail = Arrays.copyOf(lv.tail, 2 * lv.tailSize);
+        lv.tail[lv.tailSize++] = ((long)score << 32) | rec;
+        lv.tailSorted = false;
+    }
+
+    private static void sortTail(Level lv) {
+        if (!lv.tailSorted) {
+            Arrays.sort(lv.tail, 0, lv.tailSize);
+            lv.tailSorted = true;
+        }
+    }
+
+    // Open a level's index file, if there is one.
+    private static void openIndex(Level lv) throws IOException {
+        lv.sorted = null;
+        lv.numSorted = 0;
+        lv.covered = 0;
+        if (!Files.exists(lv.file))
+            return;
+        try (FileChannel f = FileChannel.open(lv.file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = f.map(FileChannel.MapMode.READ_ONLY, 0, f.size());
+            lv.numSorted = map.getLong(0);
+            lv.covered = map.getLong(8);
+            map.position(INDEX_HEADER_SIZE);
+            lv.sorted = map.slice().asLongBuffer();
+        }
+    }
+
+    // Merge every level's list into its index file, so they all cover every
+    // record added so far.
+    private void mergeAll() throws IOException {
+        for (Level level : levels)
+            merge(level);
+    }
+
+    // Write a new index file holding the old one's entries and the list's,
+    // in order, then rename it over the old one.
+    private void merge(Level lv) throws IOException {
+        sortTail(lv);
+        long total = lv.numSorted + lv.tailSize;
+        Path temp = new File(lv.file + ".tmp").toPath();
+        try (FileChannel f = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer map = f.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE + 8 * total);
+            map.putLong(0, total);
+            map.putLong(8, numRecords);
+            long i = 0;
+            int j = 0;
+            int pos = INDEX_HEADER_SIZE;
+            while (i < lv.numSorted || j < lv.tailSize) {
+                long key;
+                if (j >= lv.tailSize || (i < lv.numSorted && lv.sorted.get((int)i) < lv.tail[j]))
+                    key = lv.sorted.get((int)i++);
+                else
+                    key = lv.tail[j++];
+                map.putLong(pos, key);
+                pos += 8;
+            }
+            map.force();
+        }
+        Files.move(temp, lv.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lv.tailSize = 0;
+        openIndex(lv);
+    }
+
+    /**
+     * A main() function, which prints how many results there are for each
+     * level and the best ten of each.
+     */
+    public static void main(String args[]) throws IOException {
+        ScoreHistory history = new ScoreHistory("scores.hist");
+        long[] top = new long[10];
+        for (String level : TopScores.LEVELS) {
+            StdOut.printf("--== %s: %d results ==--\n", level, history.getNumScores(level));
+            int n = history.getTop(level, 0, Long.MAX_VALUE, top);
+            for (int i = 0; i < n; i++)
+                StdOut.printf("%2d. %9.3f %-14s seed %d\n", i + 1, history.getScore(top[i]) / 1000.0,
+                        history.getName(top[i]), history.getSeed(top[i]));
+        }
+        history.close();
+    }
+
+}
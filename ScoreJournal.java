@@ -0,0 +1,320 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  ScoreJournal saves leaderboard scores as they happen, without
+ *  rewriting the whole file each time.
+ *----------------------------------------------------------------*/
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A <i>ScoreJournal</i> keeps a TopScores object's scores on disk in two files: a
+ * snapshot, e.g. leaderboard.dat, holding the whole list, and a journal, e.g.
+ * leaderboard.dat.journal, holding scores added since the snapshot was made.
+ *
+ * Each new score is appended to the journal as one line and forced to disk
+ * once, so finishing a game writes a few bytes instead of the whole file.
+ * Every so often, in the background, the snapshot is rewritten: the new one
+ * is written to a temporary file, forced to disk, and renamed over the old
+ * one, so the snapshot on disk is always either the old one or the new one,
+ * never half of each. Then the journal is emptied.
+ *
+ * Journal lines are numbered, and the snapshot's first line says which
+ * number it is up to. Loading reads the snapshot, then adds journal lines
+ * with higher numbers. So it doesn't matter if the power goes out between
+ * renaming the snapshot and emptying the journal. A journal line cut short
+ * by a power cut has no newline at the end, and is ignored.
+ *
+ * File formats, one score per line:
+ *   snapshot:  #seq N             (first line, optional)
+ *              level score name
+ *   journal:   seq level score name
+ * Scores are written in seconds with three decimal places, e.g. 12.345, and
+ * kept in the leaderboard in milliseconds. Scores in whole seconds, from
+ * before scores were timed to the millisecond, are read too.
+ */
+public class ScoreJournal {
+
+    /**
+     * Rewrite the snapshot once the journal has this many lines.
+     */
+    public static final int COMPACT_RECORDS = 64;
+
+    /**
+     * How often to check whether the snapshot needs rewriting, in seconds.
+     */
+    public static final int COMPACT_SECONDS = 60;
+
+    // The top scores that are saved. All changes to them and to the
+    // journal are made while holding their lock.
+    private TopScores board;
+
+    // The files.
+    private Path snapshotFile;
+    private Path tempFile;
+    private Path journalFile;
+
+    // The open journal, or null if it hasn't been opened yet.
+    private FileChannel journal;
+
+    // Number of the last line written to the journal.
+    private long seq = 0;
+
+    // Number of lines in the journal that aren't in the snapshot yet.
+    private int numPending = 0;
+
+    // The background thread that rewrites the snapshot, or null if it hasn't
+    // been started yet.
+    private ScheduledExecutorService compactor;
+
+    // Held while rewriting the snapshot, so only one rewrite runs at a time.
+    private final Object compactLock = new Object();
+
+    /**
+     * Constructor: Initializes a journal for the given top scores, with the
+     * given snapshot file. Nothing is read or written yet.
+     */
+    public ScoreJournal(TopScores board, String filename) {
+        this.board = board;
+        this.snapshotFile = new File(filename).toPath();
+        this.tempFile = new File(filename + ".tmp").toPath();
+        this.journalFile = new File(filename + ".journal").toPath();
+    }
+
+    /**
+     * Load the snapshot, then the journal lines made after it, inserting every
+     * score into the leaderboard.
+     */
+    public void recover() throws IOException {
+        synchronized (board) {
+            long upTo = 0;
+            if (Files.exists(snapshotFile)) {
+                String text = new String(Files.readAllBytes(snapshotFile), StandardCharsets.UTF_8);
+                if (!text.endsWith("\n"))
+                    text += "\n"; // snapshots are complete, even if the last newline is missing
+                int start = 0;
+                if (text.startsWith("#seq ")) {
+                    int end = text.indexOf('\n');
+                    upTo = Math.max(parseNumber(text, 5, end), 0);
+                    start = end + 1;
+                }
+                parseLines(text, start, -1);
+            }
+            seq = upTo;
+            numPending = 0;
+            if (Files.exists(journalFile)) {
+                byte[] bytes = Files.readAllBytes(journalFile);
+                int length = bytes.length;
+                while (length > 0 && bytes[length - 1] != '\n')
+                    length--;
+                if (length < bytes.length) {
+                    // Cut off a line left half-written by a crash, so the
+                    // next line appended doesn't get joined onto it.
+                    try (FileChannel f = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+                        f.truncate(length);
+                        f.force(true);
+                    }
+                }
+                parseLines(new String(bytes, 0, length, StandardCharsets.UTF_8), 0, upTo);
+            }
+        }
+    }
+
+    /**
+     * Add a score to the end of the journal, and force it to disk. This must
+     * be called while holding the top scores' lock, right after the score
+     * is inserted.
+     */
+    public void append(String level, int score, String name) throws IOException {
+        if (journal == null) {
+            journal = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            startCompactor();
+        }
+        seq++;
+        String line = seq + " " + level + " " + formatScore(score) + " " + name.replace('\n', ' ') + "\n";
+        ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining())
+            journal.write(bytes);
+        journal.force(false);
+        numPending++;
+        if (numPending >= COMPACT_RECORDS)
+            compactor.execute(this::compactQuietly);
+    }
+
+    /**
+     * Rewrite the snapshot with every score in the leaderboard, then empty the
+     * journal if nothing was added to it meanwhile.
+     */
+    public void compact() throws IOException {
+        synchronized (compactLock) {
+            StringBuilder text = new StringBuilder();
+            long upTo;
+            synchronized (board) {
+                upTo = seq;
+                text.append("#seq ").append(upTo).append('\n');
+                for (String level : TopScores.LEVELS) {
+                    int n = board.getNumPlayerScores(level);
+                    for (int i = 0; i < n; i++) {
+                        int score = board.getPlayerScore(level, i);
+                        String name = board.getPlayerName(level, i);
+                        // Ignore anything that is blank. Should not
+                        // happen, but just in case...
+                        if (score >= 0 && name != null && name.length() > 0)
+                            text.append(level).append(' ').append(formatScore(score)).append(' ').append(name).append('\n');
+                    }
+                }
+            }
+
+            try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining())
+                    out.write(bytes);
+                out.force(true);
+            }
+            try {
+                Files.move(tempFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            synchronized (board) {
+                if (seq == upTo) {
+                    if (journal != null) {
+                        journal.truncate(0);
+                        journal.force(true);
+                    } else {
+                        Files.deleteIfExists(journalFile);
+                    }
+                    numPending = 0;
+                }
+            }
+        }
+    }
+
+    // Rewrite the snapshot from the background thread, if needed.
+    private void compactQuietly() {
+        try {
+            synchronized (board) {
+                if (numPending == 0)
+                    return;
+            }
+            compact();
+        } catch (IOException e) {
+            StdOut.printf("Can't save leaderboard: %s\n", e.getMessage());
+        }
+    }
+
+    // Start the background thread that rewrites the snapshot. It is a daemon
+    // thread so it doesn't keep the program running after the game ends.
+    private void startCompactor() {
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "leaderboard-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(this::compactQuietly,
+                COMPACT_SECONDS, COMPACT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Insert each complete line of text, starting at the given position, into
+    // the leaderboard. If after is -1, lines are "level score name",
+    // otherwise they are "seq level score name" and only those numbered above
+    // after are used. Lines that don't make sense are skipped.
+    private void parseLines(String text, int start, long after) {
+        while (true) {
+            int end = text.indexOf('\n', start);
+            if (end < 0)
+                return; // nothing left, or a line cut short
+            int pos = start;
+            start = end + 1;
+            if (after >= 0) {
+                int space = text.indexOf(' ', pos);
+                if (space < 0 || space > end)
+                    continue;
+                long n = parseNumber(text, pos, space);
+                if (n < 0)
+                    continue;
+                seq = Math.max(seq, n);
+                if (n <= after)
+                    continue; // already in the snapshot
+                numPending++;
+                pos = space + 1;
+            }
+            String level = null;
+            for (String l : TopScores.LEVELS) {
+                if (text.startsWith(l, pos) && pos + l.length() < end && text.charAt(pos + l.length()) == ' ')
+                    level = l;
+            }
+            if (level == null)
+                continue;
+            pos += level.length() + 1;
+            int space = text.indexOf(' ', pos);
+            if (space < 0 || space >= end - 1)
+                continue;
+            long score = parseScore(text, pos, space);
+            if (score < 0 || score > Integer.MAX_VALUE)
+                continue;
+            board.insert(level, text.substring(space + 1, end), (int)score);
+        }
+    }
+
+    // Write a score in milliseconds as seconds, e.g. 12345 as "12.345".
+    private static String formatScore(int score) {
+        int ms = score % 1000;
+        return (score / 1000) + (ms < 10 ? ".00" : ms < 100 ? ".0" : ".") + ms;
+    }
+
+    // Read a score in seconds, with up to three decimal places, from start up
+    // to end of text, as milliseconds. Returns -1 if it isn't one.
+    private static long parseScore(String text, int start, int end) {
+        int dot = text.indexOf('.', start);
+        if (dot < 0 || dot >= end)
+            dot = end;
+        long seconds = parseNumber(text, start, dot);
+        if (seconds < 0 || seconds > Integer.MAX_VALUE / 1000)
+            return -1;
+        long ms = 0;
+        if (dot < end) {
+            int digits = end - dot - 1;
+            if (digits > 3)
+                return -1;
+            ms = parseNumber(text, dot + 1, end);
+            if (ms < 0)
+                return -1;
+            for (int i = digits; i < 3; i++)
+                ms *= 10;
+        }
+        return 1000 * seconds + ms;
+    }
+
+    // Read the digits of text from start up to end as a number, or return -1
+    // if there aren't any or there is anything else there.
+    private static long parseNumber(String text, int start, int end) {
+        if (start >= end || end - start > 18)
+            return -1;
+        long n = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            n = 10 * n + (c - '0');
+        }
+        return n;
+    }
+
+}
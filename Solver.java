@@ -0,0 +1,356 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  Solver works out which hidden cells are certainly safe and which
+ *  certainly hold mines, using only the numbers that are showing.
+ *----------------------------------------------------------------*/
+
+import java.util.Arrays;
+
+/**
+ * A <i>Solver</i> object reasons about a Board the way a careful player would.
+ * Every revealed number is a constraint: the number of mines among its hidden
+ * neighbors. The solver uses two rules:
+ *   - if a number's mines are all accounted for, its other hidden neighbors
+ *     are safe, and if it has exactly as many hidden neighbors as mines left,
+ *     they are all mines
+ *   - for two numbers A and B that share hidden neighbors, if B needs as many
+ *     more mines than A as it has cells that A doesn't touch, those cells are
+ *     all mines and A's cells that B doesn't touch are all safe
+ * It repeats these until nothing new is learned. It never guesses, and it
+ * never looks at where the mines really are.
+ *
+ * The solver only looks at numbers near cells whose status has changed. When
+ * cells are revealed (it reads the board's list of revealed cells from where
+ * it left off) or found to be safe or mines, the numbers around them are put
+ * on a work list, and only those are looked at again. So a query costs time
+ * in proportion to what changed since the last one, not to the whole board or
+ * even the whole frontier.
+ */
+public class Solver {
+
+    // What the solver knows about each cell. The low two bits are one of
+    // UNKNOWN, SAFE, or MINE, and the QUEUED bit is set for numbers on the
+    // work list.
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+    private static final byte STATUS = 3;
+    private static final byte QUEUED = 4;
+
+    // The board being solved.
+    private Board board;
+
+    // What is known about each cell, beyond what the board shows.
+    private byte[] known;
+
+    // How many of the board's revealed cells have been read so far.
+    private int numSeen = 0;
+
+    // The frontier: revealed numbers that may still have unknown neighbors.
+    private int[] frontier = new int[16];
+    private int frontierSize = 0;
+
+    // The work list: numbers that need to be looked at again.
+    private int[] work = new int[16];
+    private int workSize = 0;
+
+    // Hidden cells known to be safe, and cells known to hold mines.
+    private int[] safe = new int[16];
+    private int numSafe = 0;
+    private int[] mines = new int[16];
+    private int numMines = 0;
+
+    // Scratch space for the unknown neighbors of two numbers.
+    private int[] cellsA = new int[8];
+    private int[] cellsB = new int[8];
+
+    /**
+     * Constructor: Initializes a solver for the given board. Nothing is known
+     * until update() and solve() are called.
+     */
+    public Solver(Board board) {
+        this.board = board;
+        this.known = new byte[board.getNumCells()];
+    }
+
+    /**
+     * Read the cells revealed on the board since the last update, adding the
+     * numbered ones to the frontier, and putting the numbers around them on
+     * the work list.
+     */
+    public void update() {
+        int n = board.getNumRevealed();
+        for (; numSeen < n; numSeen++) {
+            int i = board.getRevealedCell(numSeen);
+            known[i] = (byte)((known[i] & ~STATUS) | SAFE);
+            if ((board.getState(i) & Board.COUNT_MASK) != 0) {
+                if (frontierSize == frontier.length)
+                    frontier = Arrays.copyOf(frontier, 2 * frontierSize);
+                frontier[frontierSize++] = i;
+            }
+            queueAround(i, 1);
+        }
+    }
+
+    /**
+     * Find every cell that can be proven safe or proven to hold a mine from the
+     * numbers showing, after reading any new cells from the board.
+     * @return true if there are hidden cells known to be safe.
+     */
+    public boolean solve() {
+        update();
+        while (workSize > 0) {
+            int a = work[--workSize];
+            known[a] &= ~QUEUED;
+            int na = unknownNeighbors(a, cellsA);
+            if (na == 0)
+                continue; // nothing left to learn from this number
+            // Simple rules first, they are cheap and find most things.
+            int ma = minesLeft(a);
+            if (ma == 0)
+                markAll(cellsA, na, SAFE);
+            else if (ma == na)
+                markAll(cellsA, na, MINE);
+            else
+                comparePairs(a); // then compare with nearby numbers
+        }
+        // Drop safe cells that have been revealed since they were found.
+        int kept = 0;
+        for (int k = 0; k < numSafe; k++) {
+            if ((board.getState(safe[k]) & Board.REVEALED) == 0)
+                safe[kept++] = safe[k];
+        }
+        numSafe = kept;
+        return numSafe > 0;
+    }
+
+    /**
+     * Get the number of hidden cells known to be safe.
+     */
+    public int getNumSafe() {
+        return numSafe;
+    }
+
+    /**
+     * Get the index of the k^th hidden cell known to be safe.
+     */
+    public int getSafe(int k) {
+        return safe[k];
+    }
+
+    /**
+     * Get the number of cells known to hold mines.
+     */
+    public int getNumMines() {
+        return numMines;
+    }
+
+    /**
+     * Get the index of the k^th cell known to hold a mine.
+     */
+    public int getMine(int k) {
+        return mines[k];
+    }
+
+    /**
+     * Returns true if the cell at the given index is known to be safe.
+     */
+    public boolean isKnownSafe(int i) {
+        return (known[i] & STATUS) == SAFE;
+    }
+
+    /**
+     * Returns true if the cell at the given index is known to hold a mine.
+     */
+    public boolean isKnownMine(int i) {
+        return (known[i] & STATUS) == MINE;
+    }
+
+    /**
+     * Get the number of revealed numbers on the frontier, i.e. that might still
+     * have neighbors whose contents are unknown. Call update() or solve()
+     * first. Numbers whose neighbors have all become known since are dropped
+     * by trimFrontier().
+     */
+    public int getFrontierSize() {
+        return frontierSize;
+    }
+
+    /**
+     * Get the index of the k^th revealed number on the frontier.
+     */
+    public int getFrontier(int k) {
+        return frontier[k];
+    }
+
+    /**
+     * Drop numbers from the frontier that no longer have any neighbors whose
+     * contents are unknown.
+     */
+    public void trimFrontier() {
+        int kept = 0;
+        for (int k = 0; k < frontierSize; k++) {
+            if (unknownNeighbors(frontier[k], cellsA) > 0)
+                frontier[kept++] = frontier[k];
+        }
+        frontierSize = kept;
+    }
+
+    // Compare the number at index a with every number within two cells of it,
+    // applying the second rule in both directions.
+    private boolean comparePairs(int a) {
+        int cols = board.getNumCols();
+        int row = a / cols, col = a - row * cols;
+        int r0 = Math.max(row - 2, 0), r1 = Math.min(row + 2, board.getNumRows() - 1);
+        int c0 = Math.max(col - 2, 0), c1 = Math.min(col + 2, cols - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int b = r * cols + c;
+                int state = board.getState(b);
+                if (b == a || (state & Board.REVEALED) == 0 || (state & Board.COUNT_MASK) == 0)
+                    continue;
+                int na = unknownNeighbors(a, cellsA);
+                int nb = unknownNeighbors(b, cellsB);
+                if (na == 0 || nb == 0)
+                    continue;
+                if (applyPairRule(cellsA, na, minesLeft(a), cellsB, nb, minesLeft(b)))
+                    return true;
+                if (applyPairRule(cellsB, nb, minesLeft(b), cellsA, na, minesLeft(a)))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    // If B needs (mb - ma) more mines than A and has exactly that many cells
+    // outside A, then those cells are mines, and all of A's mines are in the
+    // cells it shares with B, so A's cells outside B are safe.
+    private boolean applyPairRule(int[] a, int na, int ma, int[] b, int nb, int mb) {
+        int onlyB = nb - countShared(a, na, b, nb);
+        int onlyA = na - (nb - onlyB);
+        if (mb - ma != onlyB || (onlyA == 0 && onlyB == 0))
+            return false;
+        boolean progress = false;
+        for (int k = 0; k < nb; k++) {
+            if (!contains(a, na, b[k]))
+                progress |= mark(b[k], MINE);
+        }
+        for (int k = 0; k < na; k++) {
+            if (!contains(b, nb, a[k]))
+                progress |= mark(a[k], SAFE);
+        }
+        return progress;
+    }
+
+    // Count how many cells are in both lists.
+    private static int countShared(int[] a, int na, int[] b, int nb) {
+        int shared = 0;
+        for (int k = 0; k < nb; k++) {
+            if (contains(a, na, b[k]))
+                shared++;
+        }
+        return shared;
+    }
+
+    // Check whether a cell is in a short list.
+    private static boolean contains(int[] list, int n, int i) {
+        for (int k = 0; k < n; k++) {
+            if (list[k] == i)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Put the hidden neighbors of a number whose contents aren't known into
+     * out, which must have room for 8 cells.
+     * @param i the index of a revealed number.
+     * @return how many cells were put in out.
+     */
+    public int unknownNeighbors(int i, int[] out) {
+        int cols = board.getNumCols();
+        int row = i / cols, col = i - row * cols;
+        int r0 = Math.max(row - 1, 0), r1 = Math.min(row + 1, board.getNumRows() - 1);
+        int c0 = Math.max(col - 1, 0), c1 = Math.min(col + 1, cols - 1);
+        int n = 0;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int j = r * cols + c;
+                if ((known[j] & STATUS) == UNKNOWN && (board.getState(j) & Board.REVEALED) == 0)
+                    out[n++] = j;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Get how many of a number's mines are not yet known, i.e. how many mines
+     * are among the cells given by unknownNeighbors().
+     * @param i the index of a revealed number.
+     */
+    public int minesLeft(int i) {
+        int cols = board.getNumCols();
+        int row = i / cols, col = i - row * cols;
+        int r0 = Math.max(row - 1, 0), r1 = Math.min(row + 1, board.getNumRows() - 1);
+        int c0 = Math.max(col - 1, 0), c1 = Math.min(col + 1, cols - 1);
+        int left = board.getState(i) & Board.COUNT_MASK;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if ((known[r * cols + c] & STATUS) == MINE)
+                    left--;
+            }
+        }
+        return left;
+    }
+
+    // Mark every cell in a list, returning true if any were new.
+    private boolean markAll(int[] list, int n, byte what) {
+        boolean progress = false;
+        for (int k = 0; k < n; k++)
+            progress |= mark(list[k], what);
+        return progress;
+    }
+
+    // Record that a cell is safe or a mine, returning true if this is new. The
+    // numbers around it may now tell us more, so they go on the work list.
+    private boolean mark(int i, byte what) {
+        if ((known[i] & STATUS) != UNKNOWN)
+            return false;
+        known[i] |= what;
+        queueAround(i, 1);
+        if (what == SAFE) {
+            if (numSafe == safe.length)
+                safe = Arrays.copyOf(safe, 2 * numSafe);
+            safe[numSafe++] = i;
+        } else {
+            if (numMines == mines.length)
+                mines = Arrays.copyOf(mines, 2 * numMines);
+            mines[numMines++] = i;
+        }
+        return true;
+    }
+
+    // Put the revealed numbers within the given distance of a cell on the work
+    // list, unless they are already on it.
+    private void queueAround(int i, int distance) {
+        int cols = board.getNumCols();
+        int row = i / cols, col = i - row * cols;
+        int r0 = Math.max(row - distance, 0), r1 = Math.min(row + distance, board.getNumRows() - 1);
+        int c0 = Math.max(col - distance, 0), c1 = Math.min(col + distance, cols - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int j = r * cols + c;
+                int state = board.getState(j);
+                if ((state & Board.REVEALED) == 0 || (state & Board.COUNT_MASK) == 0
+                        || (known[j] & QUEUED) != 0)
+                    continue;
+                known[j] |= QUEUED;
+                if (workSize == work.length)
+                    work = Arrays.copyOf(work, 2 * workSize);
+                work[workSize++] = j;
+            }
+        }
+    }
+
+}
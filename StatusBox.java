@@ -10,8 +10,8 @@ import GUI.*;
 
 /**
  * A <i>StatusBox</i> object represents the status of the game as it is represented on
- * the screen. It shows the number of mines that are deployed and how many cells
- * are remaining to be revealed. A StatusBox object knows how to draw itself in
+ * the screen. It shows the number of mines that are left to be flagged and how
+ * many cells are remaining to be revealed. A StatusBox object knows how to draw itself in
  * on a Canvas.
  */
 public class StatusBox extends Widget {
@@ -62,11 +62,13 @@ public class StatusBox extends Widget {
         canvas.text(x + 40, y + 15, "Mines");
         canvas.text(x + 160, y + 15, "Cells");
 
-        // Draw the number of mines in large blue bold font.
+        // Draw the number of mines not yet flagged in large blue bold font.
+        // The game keeps count as flags are planted, so this doesn't have to
+        // look at the board.
         canvas.setFont(Canvas.BOLD_FONT);
         canvas.setFont(24);
         canvas.setPenColor(Canvas.DARK_BLUE);
-        canvas.text(x+40, y+45, "" + game.getNumMinesDeployed());
+        canvas.text(x+40, y+45, "" + game.getNumMinesRemaining());
 
         // Draw the number of remaining cells in large blue or green font.
         if (game.getNumCellsRemaining() > game.getNumMinesDeployed())
@@ -9,8 +9,10 @@
 import GUI.*;
 
 /**
- * A <i>Timer</i> object keeps track of elapsed time. It can be started,
- * stopped, or reset. A Timer knows how to draw itself on a Canvas.
+ * A <i>Timer</i> object keeps track of elapsed time, to the nanosecond, using
+ * System.nanoTime() so changes to the computer's clock don't affect it. It can
+ * be started, stopped, paused, or reset. A Timer knows how to draw itself on a
+ * Canvas, showing whole seconds.
  */
 public class Timer extends GUI.Widget {
 
@@ -27,11 +29,21 @@ public class Timer extends GUI.Widget {
     // Whether we are currently counting or not.
     private boolean isCounting;
 
-    // Time of day at which we started counting.
-    private double startTime;
+    // Whether counting was stopped by pause(), so resume() should restart it.
+    private boolean isPaused;
 
-    // Number of seconds elapsed so far.
-    private double elapsedSeconds;
+    // Value of System.nanoTime() when we last started counting. Only used
+    // while counting. nanoTime() never jumps when the clock is changed, unlike
+    // the time of day.
+    private long startNanos;
+
+    // Nanoseconds counted before we last started counting.
+    private long elapsedNanos;
+
+    // The number of seconds last drawn, and its text, so the text is only made
+    // again when the number changes.
+    private int shownSeconds = -1;
+    private String shownText = "";
 
     /**
      * Initialize a new timer.
@@ -41,8 +53,8 @@ public class Timer extends GUI.Widget {
     public Timer(int x, int y) {
         super(x, y, WIDTH, HEIGHT);
         isCounting = false;
-        startTime = 0;
-        elapsedSeconds = 0;
+        startNanos = 0;
+        elapsedNanos = 0;
     }
 
     /**
@@ -53,19 +65,55 @@ public class Timer extends GUI.Widget {
         if (isCounting)
             return;
 
-        // We subtract the previously elapsed seconds in order
-        // to get a total cumulative elapsed time, even if the
-        // timer is stopped then restarted.
-        startTime = System.currentTimeMillis()/1000.0 - elapsedSeconds;
+        // The time counted so far is kept in elapsedNanos, so the total is
+        // cumulative, even if the timer is stopped then restarted.
+        startNanos = System.nanoTime();
         isCounting = true;
+        isPaused = false;
     }
 
     /**
      * Stop the timer.
      */
     public void stopCounting() {
+        if (isCounting)
+            elapsedNanos += System.nanoTime() - startNanos;
         isCounting = false;
-        elapsedSeconds = System.currentTimeMillis()/1000.0 - startTime;
+        isPaused = false;
+    }
+
+    /**
+     * Pause the timer if it is counting, e.g. while the game is paused, so that
+     * resume() carries on counting.
+     */
+    public void pause() {
+        if (isCounting) {
+            stopCounting();
+            isPaused = true;
+        }
+    }
+
+    /**
+     * Start counting again after pause(). If the timer wasn't paused, e.g. it
+     * was stopped because the game ended, this does nothing.
+     */
+    public void resume() {
+        if (isPaused)
+            startCounting();
+    }
+
+    /**
+     * Returns true if the timer was paused and hasn't been resumed.
+     */
+    public boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * Returns true if the timer is counting.
+     */
+    public boolean isCounting() {
+        return isCounting;
     }
 
     /**
@@ -74,23 +122,56 @@ public class Timer extends GUI.Widget {
      * @param n the number of seconds to set the timer to.
      */
     public void reset(double n) {
-        elapsedSeconds = n;
+        setElapsedNanos(Math.round(n * 1e9));
+    }
+
+    /**
+     * Set the timer to exactly the given number of nanoseconds, e.g. when a
+     * saved game is resumed. If the timer is counting, it will remain so.
+     */
+    public void setElapsedNanos(long nanos) {
+        elapsedNanos = nanos;
         if (isCounting)
-            startTime = System.currentTimeMillis()/1000.0;
+            startNanos = System.nanoTime();
     }
 
     /**
-     * Get the time (in seconds) that has elapsed while the timer was
+     * Get the time (in nanoseconds) that has elapsed while the timer was
      * counting. The time is cumulative, even if the timer is stopped then
      * restarted.
      */
-    public int getElapsedSeconds() {
-        // Update the elapsed time, if needed, then return it.
+    public long getElapsedNanos() {
         if (isCounting)
-            elapsedSeconds = System.currentTimeMillis()/1000.0 - startTime;
-        return (int)elapsedSeconds;
+            return elapsedNanos + (System.nanoTime() - startNanos);
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the time (in milliseconds) that has elapsed while the timer was
+     * counting, rounded down. This is what scores are measured in.
+     */
+    public long getElapsedMillis() {
+        return getElapsedNanos() / 1000000;
     }
 
+    /**
+     * Get the time (in seconds) that has elapsed while the timer was
+     * counting, rounded down.
+     */
+    public int getElapsedSeconds() {
+        return (int)(getElapsedNanos() / 1000000000L);
+    }
+
+    /**
+     * Get the nanoseconds until the number of seconds shown changes, or -1 if
+     * the timer isn't counting, so it won't change. This is used as the
+     * ticker for a RepaintScheduler.
+     */
+    public long getNanosUntilNextSecond() {
+        if (!isCounting)
+            return -1;
+        return 1000000000L - getElapsedNanos() % 1000000000L;
+    }
 
     /**
      * Draw the timer box on a canvas. Don't call this directly, it is called by
@@ -119,8 +200,11 @@ public class Timer extends GUI.Widget {
         canvas.setFont(24);
         canvas.setPenColor(Canvas.DARK_RED);
         int n = getElapsedSeconds();
-        String s = "" + n; // could also use String.format("%d", n)
-        canvas.text(x + 75, y + 45, s);
+        if (n != shownSeconds) {
+            shownSeconds = n;
+            shownText = "" + n; // could also use String.format("%d", n)
+        }
+        canvas.text(x + 75, y + 45, shownText);
     }
 
 }
@@ -22,11 +22,19 @@ import GUI.*;
 public class TitleScreen extends Window implements EventListener {
 
     // The user's choice. Uses "quit" as the default if nothing else is chosen.
-    // Possible values are "quit", "easy", "medium", and "hard".
+    // Possible values are "quit", "easy", "medium", "hard", and "custom".
     private String selection = "quit";
 
     // Buttons for the different options.
-    private Button easy, okay, hard, quit;
+    private Button easy, okay, hard, custom, quit;
+
+    /**
+     * How often the colors of the border change, in milliseconds.
+     */
+    public static final int COLOR_CHANGE_MS = 500;
+
+    // Draws the window again each time the border colors change.
+    private RepaintScheduler frames;
 
     /**
      * Initialize a new title screen. 
@@ -40,7 +48,8 @@ public class TitleScreen extends Window implements EventListener {
         easy = new Button(280, 120, 160, 40, "1 - Easy");
         okay = new Button(280, 170, 160, 40, "2 - Medium");
         hard = new Button(280, 220, 160, 40, "3 - Hard");
-        quit = new Button(280, 300, 160, 40, "Q - Quit");
+        custom = new Button(280, 270, 160, 40, "4 - Custom");
+        quit = new Button(280, 320, 160, 40, "Q - Quit");
 
         easy.setForegroundColor(Canvas.WHITE);
         easy.setBackgroundColor(Canvas.GREEN.darker());
@@ -54,6 +63,10 @@ public class TitleScreen extends Window implements EventListener {
         hard.setBackgroundColor(Canvas.ORANGE.darker());
         hard.setBorderColor(null);
 
+        custom.setForegroundColor(Canvas.WHITE);
+        custom.setBackgroundColor(Canvas.MAGENTA.darker());
+        custom.setBorderColor(null);
+
         quit.setForegroundColor(Canvas.WHITE);
         quit.setBackgroundColor(Canvas.RED.darker());
         quit.setBorderColor(null);
@@ -61,6 +74,7 @@ public class TitleScreen extends Window implements EventListener {
         add(easy);
         add(okay);
         add(hard);
+        add(custom);
         add(quit);
 
         // Add a title at the top
@@ -68,6 +82,12 @@ public class TitleScreen extends Window implements EventListener {
         title.setFont("SansSerif Bold", 48);
         title.setForegroundColor(Canvas.DARK_BLUE);
         add(title);
+
+        // Nothing else changes on its own, so the window only needs drawing
+        // when the border colors change.
+        frames = new RepaintScheduler(() -> repaint(), Game.MAX_FRAMES_PER_SECOND);
+        frames.setTicker(() -> 1000000L * (COLOR_CHANGE_MS - System.currentTimeMillis() % COLOR_CHANGE_MS));
+        frames.start();
     }
 
     /**
@@ -83,7 +103,7 @@ public class TitleScreen extends Window implements EventListener {
         // Also draw some "raised 3D" beveled rectangles, so they look like
         // mines. We will use a mostly gray ones, and a few odd colors. I use a
         // clever trick to pick the colors.
-        int r = (int)System.currentTimeMillis() / 500;
+        int r = (int)(System.currentTimeMillis() / COLOR_CHANGE_MS);
 
         for (int i = 0; i < 30; i++) {
             for (int j = 0; j < 20; j++) {
@@ -127,16 +147,19 @@ public class TitleScreen extends Window implements EventListener {
     public void keyTyped(char c) {
         if (c == '1') {
             selection = "easy";
-            hide();
+            choose();
         } else if (c == '2') {
             selection = "medium";
-            hide();
+            choose();
         } else if (c == '3') {
             selection = "hard";
-            hide();
+            choose();
+        } else if (c == '4') {
+            selection = "custom";
+            choose();
         } else if (c == 'q' || c == 'Q') {
             selection = "quit";
-            hide();
+            choose();
         }
     }
 
@@ -155,20 +178,29 @@ public class TitleScreen extends Window implements EventListener {
         if (button.equals("left")) {
             if (easy.containsPoint(x, y)) {
                 selection = "easy";
-                hide();
+                choose();
             } else if (okay.containsPoint(x, y)) {
                 selection = "medium";
-                hide();
+                choose();
             } else if (hard.containsPoint(x, y)) {
                 selection = "hard";
-                hide();
+                choose();
+            } else if (custom.containsPoint(x, y)) {
+                selection = "custom";
+                choose();
             } else if (quit.containsPoint(x, y)) {
                 selection = "quit";
-                hide();
+                choose();
             }
         }
     }
 
+    // The user has made their selection: stop drawing and close the window.
+    private void choose() {
+        frames.stop();
+        hide();
+    }
+
     /**
      * Get the selection. Call this after calling showAndWait() to find out
      * what the user selected.
@@ -182,7 +214,7 @@ public class TitleScreen extends Window implements EventListener {
      */
     public static void main(String args[]) {
         TitleScreen t = new TitleScreen();
-        t.showAndAnimate(4);
+        t.showAndWait();
         System.out.println("You chose: " + t.getSelection());
     }
 }
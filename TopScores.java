@@ -0,0 +1,216 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  TopScores keeps track of a list of top scores for each level,
+ *  and saves them to a file. It has no window, see Leaderboard.
+ *----------------------------------------------------------------*/
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A <i>TopScores</i> object keeps track of the top few names and scores for
+ * each difficulty level, and saves them through a ScoreJournal. Scores are
+ * times in milliseconds, so games a fraction of a second apart are ranked
+ * apart. It has no window, so it can be used headless, e.g. by benchmarks. A
+ * Leaderboard shows one in a window.
+ */
+public class TopScores {
+
+    /**
+     * The maximum number of top scores we should keep. The worst (largest)
+     * scores are dropped to ensure that no more than this number are ever
+     * displayed or stored.
+     */
+    public static final int MAX_NUM_SCORES = 10;
+
+    /**
+     * The difficulty levels that have their own top scores list.
+     */
+    public static final String[] LEVELS = { "easy", "medium", "hard" };
+
+    // The top scores for each level, best (smallest) first, with the player
+    // names in a parallel array. Only the first numScores[level] entries of
+    // each are used.
+    private int[][] scores = new int[LEVELS.length][MAX_NUM_SCORES];
+    private String[][] names = new String[LEVELS.length][MAX_NUM_SCORES];
+    private int[] numScores = new int[LEVELS.length];
+
+    // Where the scores are saved.
+    private ScoreJournal journal;
+
+    /**
+     * Initialize a new list of top scores, saved in the given file. This does
+     * not load any data from the file, so the caller should call load() next.
+     */
+    public TopScores(String filename) {
+        journal = new ScoreJournal(this, filename);
+    }
+
+    // Get the position of a difficulty level in LEVELS, or -1 if it isn't one.
+    private static int levelIndex(String difficulty) {
+        if (difficulty == null)
+            return -1;
+        switch (difficulty) {
+            case "easy": return 0;
+            case "medium": return 1;
+            case "hard": return 2;
+            default: return -1;
+        }
+    }
+
+    /**
+     * Load top scores from the file, and any scores recorded since it was
+     * last saved, replacing the scores in memory.
+     */
+    public synchronized void load() {
+        Arrays.fill(numScores, 0);
+        try {
+            journal.recover();
+        } catch (IOException e) {
+            StdOut.printf("Can't load leaderboard: %s\n", e.getMessage());
+        }
+    }
+
+    /**
+     * Save top scores to the file. Scores added with record() are already
+     * saved, this rewrites the whole file so it doesn't need the journal of
+     * recent scores.
+     */
+    public void save() {
+        try {
+            journal.compact();
+        } catch (IOException e) {
+            StdOut.printf("Can't save leaderboard: %s\n", e.getMessage());
+        }
+    }
+
+    /**
+     * Insert the given name and score like insert(), and if it makes the list
+     * save it to disk right away.
+     * @param difficulty the difficulty level
+     * @param name the user's name
+     * @param score the user's time, in milliseconds
+     * @return the ranking of the new score, or -1 if the score didn't make
+     * the list.
+     */
+    public synchronized int record(String difficulty, String name, int score) {
+        int rank = insert(difficulty, name, score);
+        if (rank >= 0) {
+            try {
+                journal.append(LEVELS[levelIndex(difficulty)], score, name);
+            } catch (IOException e) {
+                StdOut.printf("Can't save leaderboard: %s\n", e.getMessage());
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Insert the given name and score, if it is good enough to make the list.
+     * This also returns the position of the newly inserted name, where 0 is
+     * the best score, 1 is the next best, etc. If the score was not
+     * inserted for any reason (e.g. if the list was full and the score was
+     * too poor), this function returns -1 instead.
+     * @param difficulty the difficulty level
+     * @param name the user's name
+     * @param score the user's time, in milliseconds
+     * @return the ranking of the new score, or -1 if the score didn't make
+     * the list.
+     */
+    public synchronized int insert(String difficulty, String name, int score) {
+        int level = levelIndex(difficulty);
+        if (level < 0)
+            return -1;
+        int[] s = scores[level];
+        String[] p = names[level];
+        int n = numScores[level];
+        // Binary search for the first score worse than this one, so it goes
+        // after any equal scores that were inserted earlier.
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (s[mid] <= score)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        if (lo >= MAX_NUM_SCORES)
+            return -1; // list is full and this score is too poor
+        // Shift worse scores down one place, dropping the last if full.
+        int moved = Math.min(n, MAX_NUM_SCORES - 1) - lo;
+        System.arraycopy(s, lo, s, lo + 1, moved);
+        System.arraycopy(p, lo, p, lo + 1, moved);
+        s[lo] = score;
+        p[lo] = name;
+        if (n < MAX_NUM_SCORES)
+            numScores[level] = n + 1;
+        return lo;
+    }
+
+    /**
+     * Get the number of player scores in the list.
+     * @param difficulty the difficulty level
+     * @return the number of scores known at that difficulty level
+     */
+    public int getNumPlayerScores(String difficulty) {
+        int level = levelIndex(difficulty);
+        return level < 0 ? 0 : numScores[level];
+    }
+
+    /**
+     * Get the i^th player score in the list. If no such score exists, then
+     * instead return -1 instead.
+     * @param difficulty the difficulty level
+     * @return the list position to get, counting from zero.
+     * @return the score at position i in the list for that difficulty
+     * level, or -1 if no such position exists.
+     */
+    public int getPlayerScore(String difficulty, int i) {
+        int level = levelIndex(difficulty);
+        if (level < 0 || i < 0 || i >= numScores[level])
+            return -1;
+        return scores[level][i];
+    }
+
+    /**
+     * Get the i^th player name in the list. If no such name exists, then
+     * instead return null instead.
+     * @param difficulty the difficulty level
+     * @return the list position to get, counting from zero.
+     * @return the score at position i in the list for that difficulty
+     * level, or null if no such position exists.
+     */
+    public String getPlayerName(String difficulty, int i) {
+        int level = levelIndex(difficulty);
+        if (level < 0 || i < 0 || i >= numScores[level])
+            return null;
+        return names[level][i];
+    }
+
+    // Print all of the top scores to the console, with a nice header.
+    public void print() {
+        int numEasy = getNumPlayerScores("easy");
+        int numMedium = getNumPlayerScores("medium");
+        int numHard = getNumPlayerScores("hard");
+
+        StdOut.printf("   --========================== Top Scores ==========================--\n");
+        StdOut.printf("   --== Easy ==--             --== Medium ==--           --== Hard ==--\n");
+        //             SECONDS. NAME(14)........  SECONDS. NAME(14)........  SECONDS. NAME(14)........
+        for (int i = 0; i < MAX_NUM_SCORES; i++) {
+            StdOut.printf("%2d.", (i+1)); // line number
+            if (i < numEasy)
+                StdOut.printf("%8.3f %-14s  ", getPlayerScore("easy", i) / 1000.0, getPlayerName("easy", i));
+            else
+                StdOut.printf("      -  %-14s  ", "  -");
+            if (i < numMedium)
+                StdOut.printf("%8.3f %-14s  ", getPlayerScore("medium", i) / 1000.0, getPlayerName("medium", i));
+            else
+                StdOut.printf("      -  %-14s  ", "  -");
+            if (i < numHard)
+                StdOut.printf("%8.3f %-14s\n", getPlayerScore("hard", i) / 1000.0, getPlayerName("hard", i));
+            else
+                StdOut.printf("      -  %-14s\n", "  -");
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  JmhWorkloads gives the JMH benchmarks, which are in a package,
+ *  a way to reach the game's classes, which are not.
+ *----------------------------------------------------------------*/
+
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import minesweeper.jmh.Workload;
+import minesweeper.jmh.Workloads;
+
+/**
+ * <i>JmhWorkloads</i> makes the workloads measured by the JMH benchmarks in
+ * minesweeper.jmh, out of the game's own classes. Each does the same work as
+ * the matching benchmark in Benchmarks, so the two can be compared. Boards
+ * are filled using StdRandom with a fixed seed, so every run measures the
+ * same boards.
+ */
+public class JmhWorkloads implements Workloads {
+
+    // The seed for every board.
+    private static final long SEED = 1234;
+
+    // The game window and canvas used for drawing, made the first time they
+    // are needed, and the cells of a full view of its board.
+    private static GUI.Canvas canvas;
+    private static Game game;
+    private static Cell[] cells;
+
+    public Workload deploy(int rows, int cols, int mines) {
+        StdRandom.setSeed(SEED);
+        Board board = new Board(rows, cols);
+        return new Workload() {
+            public void setup() {
+                board.reset();
+            }
+            public long run() {
+                board.deployMines(mines);
+                return board.getNumMinesDeployed();
+            }
+        };
+    }
+
+    public Workload revealNumbered(int rows, int cols, int mines, int clicks) {
+        Board board = new Board(rows, cols);
+        int[] numbered = new int[clicks];
+        return new Workload() {
+            public void setup() {
+                StdRandom.setSeed(SEED);
+                board.reset();
+                board.deployMines(mines);
+                // Take every k-th numbered cell, so the clicks are spread
+                // over the board like a player's would be.
+                int all = 0;
+                for (int i = 0; i < board.getNumCells(); i++) {
+                    if (isNumbered(board, i))
+                        all++;
+                }
+                if (all < clicks)
+                    throw new IllegalArgumentException("only " + all + " numbered cells, not " + clicks);
+                int step = all / clicks, n = 0, seen = 0;
+                for (int i = 0; i < board.getNumCells() && n < clicks; i++) {
+                    if (isNumbered(board, i) && seen++ % step == 0)
+                        numbered[n++] = i;
+                }
+            }
+            public long run() {
+                long revealed = 0;
+                for (int i : numbered)
+                    revealed += board.reveal(i / cols, i % cols);
+                return revealed;
+            }
+        };
+    }
+
+    public Workload revealCascade(int rows, int cols, int mines) {
+        Board board = new Board(rows, cols);
+        return new Workload() {
+            int start;
+            public void setup() {
+                StdRandom.setSeed(SEED);
+                board.reset();
+                board.deployMines(mines);
+                start = 0;
+                while ((board.getState(start) & (Board.MINE | Board.COUNT_MASK)) != 0)
+                    start++;
+            }
+            public long run() {
+                return board.reveal(start / cols, start % cols);
+            }
+        };
+    }
+
+    public Workload applyMoves(int rows, int cols, int mines) {
+        Board board = new Board(rows, cols);
+        int[] moves = new int[3 * board.getNumCells()];
+        return new Workload() {
+            int count;
+            public void setup() {
+                StdRandom.setSeed(SEED);
+                board.reset();
+                board.deployMines(mines);
+                count = 0;
+                for (int i = 0; i < board.getNumCells(); i++) {
+                    if ((board.getState(i) & Board.MINE) == 0) {
+                        moves[3 * count] = i / cols;
+                        moves[3 * count + 1] = i % cols;
+                        moves[3 * count + 2] = Replay.LEFT;
+                        count++;
+                    }
+                }
+            }
+            public long run() {
+                return board.applyMoves(moves, 0, count);
+            }
+        };
+    }
+
+    public Workload repaint(boolean everyCell) {
+        showWindow();
+        return new Workload() {
+            public void setup() {
+                if (everyCell)
+                    game.redrawAll();
+            }
+            public long run() {
+                for (Cell cell : cells)
+                    cell.repaint(canvas);
+                return cells.length;
+            }
+        };
+    }
+
+    public Workload insertScore(String filename) {
+        TopScores scores = new TopScores(filename);
+        String[] levels = TopScores.LEVELS;
+        return new Workload() {
+            int k = 0;
+            public void setup() {
+            }
+            public long run() {
+                k++;
+                return scores.insert(levels[k % levels.length], "bench", (int)((k * 7919L) % 1000));
+            }
+        };
+    }
+
+    public Workload saveScores(String filename) {
+        TopScores scores = filledScores(filename);
+        return new Workload() {
+            public void setup() {
+            }
+            public long run() {
+                scores.save();
+                return scores.getNumPlayerScores("easy");
+            }
+        };
+    }
+
+    public Workload loadScores(String filename) {
+        TopScores scores = filledScores(filename);
+        scores.save();
+        return new Workload() {
+            public void setup() {
+            }
+            public long run() {
+                scores.load();
+                return scores.getNumPlayerScores("easy");
+            }
+        };
+    }
+
+    // Whether the cell at the given index is safe and has a number.
+    private static boolean isNumbered(Board board, int i) {
+        int state = board.getState(i);
+        return (state & Board.MINE) == 0 && (state & Board.COUNT_MASK) != 0;
+    }
+
+    // Make top scores saved in the given file, with every list full.
+    private static TopScores filledScores(String filename) {
+        TopScores scores = new TopScores(filename);
+        for (String level : TopScores.LEVELS) {
+            for (int i = 0; i < TopScores.MAX_NUM_SCORES; i++)
+                scores.insert(level, "bench" + i, 1000 * (i + 1));
+        }
+        return scores;
+    }
+
+    // Show a game window with a full view of a half-revealed board, and keep
+    // the canvas it is drawn on, since the GUI system only hands it out
+    // while drawing the window. This is done once, for every benchmark.
+    private static synchronized void showWindow() {
+        if (canvas != null)
+            return;
+        if (GraphicsEnvironment.isHeadless())
+            throw new IllegalStateException("drawing needs a display");
+        int rows = Game.MAX_VIEW_ROWS, cols = Game.MAX_VIEW_COLS;
+        GUI.Canvas[] shownCanvas = new GUI.Canvas[1];
+        CountDownLatch shown = new CountDownLatch(1);
+        Game g = new Game("bench", "hard", rows, cols) {
+            public void repaintWindowBackground(GUI.Canvas c) {
+                super.repaintWindowBackground(c);
+                shownCanvas[0] = c;
+                shown.countDown();
+            }
+        };
+        Thread window = new Thread(g::showAndWait, "benchmark-window");
+        window.setDaemon(true);
+        window.start();
+        g.requestRepaint();
+        try {
+            if (!shown.await(10, TimeUnit.SECONDS))
+                throw new IllegalStateException("the game window was never drawn, is the real GUI library on the class path?");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException("interrupted waiting for the window", e);
+        }
+
+        StdRandom.setSeed(SEED);
+        Board board = g.getBoard();
+        board.deployMines(rows * cols / 6);
+        for (int i = 0; i < board.getNumCells(); i += 2) {
+            if ((board.getState(i) & Board.MINE) == 0)
+                board.reveal(i / cols, i % cols);
+        }
+        Cell[] all = new Cell[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++)
+                all[r * cols + c] = new Cell(g, r, c, c * Cell.SIZE, r * Cell.SIZE);
+        }
+        game = g;
+        cells = all;
+        canvas = shownCanvas[0];
+    }
+
+}
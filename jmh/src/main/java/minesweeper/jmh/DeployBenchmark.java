@@ -0,0 +1,65 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  DeployBenchmark times deploying mines at each difficulty level
+ *  and on large custom boards.
+ *----------------------------------------------------------------*/
+
+package minesweeper.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <i>DeployBenchmark</i> times deploying mines on an empty board, for each
+ * difficulty level and for 1000x1000 boards at low, middling, and high mine
+ * densities, which MinePlacer handles three different ways. Clearing the
+ * board before each deploy isn't timed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeployBenchmark {
+
+    /**
+     * The board: rows x cols x mines. The first three are the easy, medium,
+     * and hard levels.
+     */
+    @Param({ "20x30x5", "20x30x20", "20x30x100",
+             "1000x1000x150000", "1000x1000x500000", "1000x1000x900000" })
+    public String board;
+
+    private Workload deploy;
+
+    @Setup(Level.Trial)
+    public void makeBoard() {
+        String[] size = board.split("x");
+        deploy = Workloads.load().deploy(Integer.parseInt(size[0]), Integer.parseInt(size[1]),
+                Integer.parseInt(size[2]));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearBoard() {
+        deploy.setup();
+    }
+
+    @Benchmark
+    public long deployMines() {
+        return deploy.run();
+    }
+
+}
@@ -0,0 +1,43 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  Main runs the JMH benchmarks with allocation profiling on.
+ *----------------------------------------------------------------*/
+
+package minesweeper.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * <i>Main</i> runs the benchmarks like JMH's own main, taking the same
+ * options, e.g. a benchmark name pattern, -f forks, or -l to list them, but
+ * always adds the GC profiler, as if -prof gc had been given, so every
+ * result comes with the bytes allocated per operation.
+ */
+public class Main {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(cmd);
+        boolean hasGC = false;
+        for (ProfilerConfig profiler : cmd.getProfilers())
+            hasGC |= profiler.getKlass().equals("gc") || profiler.getKlass().equals(GCProfiler.class.getName());
+        if (!hasGC)
+            options.addProfiler(GCProfiler.class);
+        Runner runner = new Runner(options.build());
+        if (cmd.shouldList())
+            runner.list();
+        else
+            runner.run();
+    }
+
+}
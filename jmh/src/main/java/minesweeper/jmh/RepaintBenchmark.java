@@ -0,0 +1,62 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  RepaintBenchmark times drawing a full view of the board with
+ *  Cell.repaint().
+ *----------------------------------------------------------------*/
+
+package minesweeper.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <i>RepaintBenchmark</i> times one pass of Cell.repaint() over every cell of
+ * a full view of the board, on the canvas of a real game window: once with
+ * every cell drawn, as after the window is uncovered, and once with no cell
+ * changed, as on most frames. It needs the real GUI library on the class path
+ * and a display; without them, these benchmarks fail and the rest still run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepaintBenchmark {
+
+    @State(Scope.Thread)
+    public static class FullView {
+        Workload repaint = Workloads.load().repaint(true);
+
+        @Setup(Level.Invocation)
+        public void invalidate() {
+            repaint.setup();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Unchanged {
+        Workload repaint = Workloads.load().repaint(false);
+    }
+
+    @Benchmark
+    public long fullView(FullView state) {
+        return state.repaint.run();
+    }
+
+    @Benchmark
+    public long unchanged(Unchanged state) {
+        return state.repaint.run();
+    }
+
+}
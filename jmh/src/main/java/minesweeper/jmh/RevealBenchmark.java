@@ -0,0 +1,97 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  RevealBenchmark times revealing cells: single clicks, cascades,
+ *  and batches of moves.
+ *----------------------------------------------------------------*/
+
+package minesweeper.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <i>RevealBenchmark</i> times revealing cells on a 1000x1000 board: single
+ * clicks on numbered cells, which reveal just that cell, one click that
+ * cascades through a large open region, and a batch with a move for every
+ * safe cell. Each benchmark gets a freshly mined board, which isn't timed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RevealBenchmark {
+
+    // How many single clicks are timed together.
+    private static final int CLICKS = 10000;
+
+    @State(Scope.Thread)
+    public static class Single {
+        Workload reveal = Workloads.load().revealNumbered(1000, 1000, 150000, CLICKS);
+
+        @Setup(Level.Invocation)
+        public void newBoard() {
+            reveal.setup();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cascade {
+        Workload reveal = Workloads.load().revealCascade(1000, 1000, 20000);
+
+        @Setup(Level.Invocation)
+        public void newBoard() {
+            reveal.setup();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Batch {
+        Workload moves = Workloads.load().applyMoves(1000, 1000, 100000);
+
+        @Setup(Level.Invocation)
+        public void newBoard() {
+            moves.setup();
+        }
+    }
+
+    /**
+     * Time per click on a numbered cell.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CLICKS)
+    public long single(Single state) {
+        return state.reveal.run();
+    }
+
+    /**
+     * Time for one click that opens most of the board.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long cascade(Cascade state) {
+        return state.reveal.run();
+    }
+
+    /**
+     * Time for a batch of moves, one for each safe cell.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long batch(Batch state) {
+        return state.moves.run();
+    }
+
+}
@@ -0,0 +1,79 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  TopScoresBenchmark times inserting, saving, and loading the top
+ *  scores behind the leaderboard.
+ *----------------------------------------------------------------*/
+
+package minesweeper.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <i>TopScoresBenchmark</i> times the leaderboard's list of top scores, using
+ * TopScores so no window is needed: inserting a score, saving the whole list,
+ * and loading it again. The list is saved in a temporary directory, which is
+ * deleted afterwards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopScoresBenchmark {
+
+    private Path dir;
+    private Workload insert, save, load;
+
+    @Setup(Level.Trial)
+    public void makeScores() throws IOException {
+        dir = Files.createTempDirectory("benchmarks");
+        Workloads workloads = Workloads.load();
+        insert = workloads.insertScore(dir.resolve("insert.dat").toString());
+        save = workloads.saveScores(dir.resolve("save.dat").toString());
+        load = workloads.loadScores(dir.resolve("load.dat").toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteScores() throws IOException {
+        try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>)files::iterator)
+                Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public long insert() {
+        return insert.run();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long save() {
+        return save.run();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long load() {
+        return load.run();
+    }
+
+}
@@ -0,0 +1,29 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  Workload is one piece of game code to be measured by the JMH
+ *  benchmarks.
+ *----------------------------------------------------------------*/
+
+package minesweeper.jmh;
+
+/**
+ * A <i>Workload</i> is one piece of the game to measure. The game's classes
+ * are in the default package, which code in a package can't name, so the
+ * benchmarks only see them through this interface and Workloads.
+ */
+public interface Workload {
+
+    /**
+     * Get ready to run, e.g. by making a fresh board. This isn't timed.
+     */
+    void setup();
+
+    /**
+     * Do the work being measured, once.
+     * @return something computed from the result, for the benchmark to
+     * return so the JIT can't decide the work is unused.
+     */
+    long run();
+
+}
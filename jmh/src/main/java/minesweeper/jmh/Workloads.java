@@ -0,0 +1,78 @@
+/*----------------------------------------------------------------
+ *  Written:  10/17/2026
+ *
+ *  Workloads makes the pieces of game code the JMH benchmarks
+ *  measure.
+ *----------------------------------------------------------------*/
+
+package minesweeper.jmh;
+
+/**
+ * <i>Workloads</i> makes Workload objects for the game's hot paths. It is
+ * implemented by JmhWorkloads, in the default package with the game, and
+ * found by name with load(). Each benchmark calls load() once while setting
+ * up, so measured code only makes interface calls, which the JIT inlines.
+ */
+public interface Workloads {
+
+    /**
+     * Deploy mines on an empty board, as Game.deployMines() does.
+     */
+    Workload deploy(int rows, int cols, int mines);
+
+    /**
+     * Reveal numbered cells of a board, one click at a time, spread over the
+     * whole board. None of these clicks cascade.
+     * @param clicks how many cells each run() reveals.
+     */
+    Workload revealNumbered(int rows, int cols, int mines, int clicks);
+
+    /**
+     * Reveal one cell with no neighboring mines, cascading through the open
+     * region around it.
+     */
+    Workload revealCascade(int rows, int cols, int mines);
+
+    /**
+     * Apply one move for every safe cell of a board as a batch, in row
+     * order, with Board.applyMoves().
+     */
+    Workload applyMoves(int rows, int cols, int mines);
+
+    /**
+     * Draw every cell of a full view of the board with Cell.repaint(), on
+     * the canvas of a real game window. This needs the real GUI library and
+     * a display.
+     * @param everyCell true to redraw every cell, as after the window is
+     * uncovered, or false for a frame where no cell changed.
+     */
+    Workload repaint(boolean everyCell);
+
+    /**
+     * Insert a score into the top scores, with no window.
+     * @param filename where the top scores are saved.
+     */
+    Workload insertScore(String filename);
+
+    /**
+     * Save the top scores, with no window.
+     */
+    Workload saveScores(String filename);
+
+    /**
+     * Load the top scores, with no window.
+     */
+    Workload loadScores(String filename);
+
+    /**
+     * Get the Workloads that goes with the game on the class path.
+     */
+    static Workloads load() {
+        try {
+            return (Workloads)Class.forName("JmhWorkloads").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("can't load the game's workloads: " + e, e);
+        }
+    }
+
+}
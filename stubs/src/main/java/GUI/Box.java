@@ -0,0 +1,20 @@
+package GUI;
+
+import java.awt.Color;
+
+/**
+ * Compile-time stand-in for the GUI library's Box.
+ */
+public class Box extends Widget {
+
+    public Box(double x, double y, double width, double height) {
+        super(x, y, width, height);
+    }
+
+    public void setBackgroundColor(Color color) {
+    }
+
+    public void setBorderColor(Color color) {
+    }
+
+}
@@ -0,0 +1,27 @@
+package GUI;
+
+import java.awt.Color;
+
+/**
+ * Compile-time stand-in for the GUI library's Button.
+ */
+public class Button extends Widget {
+
+    public Button(double x, double y, double width, double height, String text) {
+        super(x, y, width, height);
+    }
+
+    public void setBackgroundColor(Color color) {
+    }
+
+    public void setForegroundColor(Color color) {
+    }
+
+    public void setBorderColor(Color color) {
+    }
+
+    public boolean containsPoint(double x, double y) {
+        return x >= this.x && x < this.x + width && y >= this.y && y < this.y + height;
+    }
+
+}
@@ -0,0 +1,65 @@
+package GUI;
+
+import java.awt.Color;
+import java.awt.Font;
+
+/**
+ * Compile-time stand-in for the GUI library's Canvas, with just the parts the
+ * game uses. Drawing does nothing; build against the real library to run the
+ * game.
+ */
+public class Canvas {
+
+    public static final Color BLACK = Color.BLACK;
+    public static final Color BLUE = Color.BLUE;
+    public static final Color CYAN = Color.CYAN;
+    public static final Color DARK_BLUE = new Color(0, 0, 139);
+    public static final Color DARK_GRAY = Color.DARK_GRAY;
+    public static final Color DARK_GREEN = new Color(0, 100, 0);
+    public static final Color DARK_RED = new Color(139, 0, 0);
+    public static final Color GRAY = Color.GRAY;
+    public static final Color GREEN = Color.GREEN;
+    public static final Color LIGHT_GRAY = Color.LIGHT_GRAY;
+    public static final Color MAGENTA = Color.MAGENTA;
+    public static final Color MAROON = new Color(128, 0, 0);
+    public static final Color ORANGE = Color.ORANGE;
+    public static final Color PINK = Color.PINK;
+    public static final Color RED = Color.RED;
+    public static final Color TURQUOISE = new Color(64, 224, 208);
+    public static final Color WHITE = Color.WHITE;
+    public static final Color YELLOW = Color.YELLOW;
+
+    public static final Font DEFAULT_FONT = new Font("SansSerif", Font.PLAIN, 16);
+    public static final Font BOLD_FONT = new Font("SansSerif", Font.BOLD, 16);
+
+    public void setPenColor(Color color) {
+    }
+
+    public void setPenRadius(double radius) {
+    }
+
+    public void setFont(Font font) {
+    }
+
+    public void setFont(int size) {
+    }
+
+    public void rectangle(double x, double y, double width, double height) {
+    }
+
+    public void filledRectangle(double x, double y, double width, double height) {
+    }
+
+    public void raisedBevelRectangle(double x, double y, double width, double height, double bevel) {
+    }
+
+    public void text(double x, double y, String text) {
+    }
+
+    public void textLeft(double x, double y, String text) {
+    }
+
+    public void picture(double x, double y, String filename) {
+    }
+
+}
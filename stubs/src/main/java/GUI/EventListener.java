@@ -0,0 +1,14 @@
+package GUI;
+
+/**
+ * Compile-time stand-in for the GUI library's EventListener.
+ */
+public interface EventListener {
+
+    default void mouseClicked(double x, double y, String button) {
+    }
+
+    default void keyTyped(char c) {
+    }
+
+}
@@ -0,0 +1,26 @@
+package GUI;
+
+import java.awt.Color;
+
+/**
+ * Compile-time stand-in for the GUI library's Label.
+ */
+public class Label extends Widget {
+
+    public Label(double x, double y, String text) {
+        super(x, y, 0, 0);
+    }
+
+    public void setFont(String name, int size) {
+    }
+
+    public void setForegroundColor(Color color) {
+    }
+
+    public void setBackgroundColor(Color color) {
+    }
+
+    public void setBorderColor(Color color) {
+    }
+
+}
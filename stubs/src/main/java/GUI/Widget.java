@@ -0,0 +1,20 @@
+package GUI;
+
+/**
+ * Compile-time stand-in for the GUI library's Widget.
+ */
+public class Widget {
+
+    protected double x, y, width, height;
+
+    public Widget(double x, double y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public void repaint(Canvas canvas) {
+    }
+
+}
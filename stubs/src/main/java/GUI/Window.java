@@ -0,0 +1,34 @@
+package GUI;
+
+import java.awt.Color;
+
+/**
+ * Compile-time stand-in for the GUI library's Window. There is no screen to
+ * show it on, so showing one fails; build against the real library to run
+ * the game.
+ */
+public class Window {
+
+    public Window(String title, int width, int height) {
+    }
+
+    public void setBackgroundColor(Color color) {
+    }
+
+    public void add(Widget widget) {
+    }
+
+    public void repaintWindowBackground(Canvas canvas) {
+    }
+
+    public void repaint() {
+    }
+
+    public void showAndWait() {
+        throw new UnsupportedOperationException("the GUI library is only stubbed in this build");
+    }
+
+    public void hide() {
+    }
+
+}
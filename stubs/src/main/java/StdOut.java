@@ -0,0 +1,18 @@
+/**
+ * Stand-in for the standard library's StdOut, with the parts the game uses.
+ */
+public class StdOut {
+
+    private StdOut() {
+    }
+
+    public static void printf(String format, Object... args) {
+        System.out.printf(format, args);
+        System.out.flush();
+    }
+
+    public static void println(Object x) {
+        System.out.println(x);
+    }
+
+}
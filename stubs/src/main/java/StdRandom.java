@@ -0,0 +1,34 @@
+import java.util.Random;
+
+/**
+ * Stand-in for the standard library's StdRandom, with the parts the game
+ * uses. Numbers come from java.util.Random, as in the real one.
+ */
+public class StdRandom {
+
+    private static Random random = new Random();
+
+    private StdRandom() {
+    }
+
+    public static void setSeed(long seed) {
+        random = new Random(seed);
+    }
+
+    public static double uniform() {
+        return random.nextDouble();
+    }
+
+    public static int uniform(int n) {
+        if (n <= 0)
+            throw new IllegalArgumentException("argument must be positive: " + n);
+        return random.nextInt(n);
+    }
+
+    public static int uniform(int a, int b) {
+        if (b <= a || (long)b - a >= Integer.MAX_VALUE)
+            throw new IllegalArgumentException("invalid range: [" + a + ", " + b + ")");
+        return a + uniform(b - a);
+    }
+
+}